@@ -1,9 +1,25 @@
 // src/pages/AdminHomePage.tsx
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import {
-    Box, Typography, Card, CardContent, Button, AppBar, Toolbar
+    Box, Typography, Card, CardContent, Button, AppBar, Toolbar, List, ListItem, ListItemText
 } from '@mui/material';
 import { useNavigate } from 'react-router-dom';
+import axios from '../api/axios';
+
+interface TopSeller {
+    medicationId: number;
+    medicationName: string;
+    units: number;
+}
+
+interface TopSellers {
+    hour: TopSeller[];
+    day: TopSeller[];
+    week: TopSeller[];
+}
+
+/** How often the top sellers widget reloads, in milliseconds. */
+const TOP_SELLERS_REFRESH_MS = 30000;
 
 /**
  * AdminHomePage Component
@@ -14,6 +30,7 @@ import { useNavigate } from 'react-router-dom';
  * Features:
  * - Displays quick access cards for: Customers, Employees, Suppliers, Sales, Drugs
  * - Each card includes a title, description, and a navigation button
+ * - Shows the top 20 best-selling drugs of the last hour, day and week, refreshed every 30 seconds
  * - Includes a logout button in the top AppBar that clears the token and redirects to the login screen
  *
  * Routes:
@@ -24,7 +41,8 @@ import { useNavigate } from 'react-router-dom';
  * - /admin/drugs
  *
  * Technologies Used:
- * - React
+ * - React (useState, useEffect)
+ * - Axios (API calls)
  * - React Router (navigation)
  * - Material UI (AppBar, Cards, Buttons, Typography)
  *
@@ -37,6 +55,24 @@ import { useNavigate } from 'react-router-dom';
 
 const AdminHomePage: React.FC = () => {
     const navigate = useNavigate();
+    const [topSellers, setTopSellers] = useState<TopSellers | null>(null);
+
+    useEffect(() => {
+        const fetchTopSellers = () => {
+            axios.get<TopSellers>('/reports/top-sellers', { params: { limit: 20 } })
+                .then(res => setTopSellers(res.data))
+                .catch(err => console.error('Failed to fetch top sellers', err));
+        };
+        fetchTopSellers();
+        const interval = setInterval(fetchTopSellers, TOP_SELLERS_REFRESH_MS);
+        return () => clearInterval(interval);
+    }, []);
+
+    const topSellerWindows: { title: string; sellers: TopSeller[] }[] = [
+        { title: 'Last hour', sellers: topSellers?.hour ?? [] },
+        { title: 'Last day', sellers: topSellers?.day ?? [] },
+        { title: 'Last week', sellers: topSellers?.week ?? [] }
+    ];
 
     const sections = [
         {
@@ -117,6 +153,43 @@ const AdminHomePage: React.FC = () => {
                         </Box>
                     ))}
                 </Box>
+
+                <Typography variant="h5" sx={{ mt: 4 }} gutterBottom>
+                    Top Sellers
+                </Typography>
+
+                <Box display="flex" flexWrap="wrap" gap="1.5rem">
+                    {topSellerWindows.map((window) => (
+                        <Box
+                            key={window.title}
+                            flex="1 1 calc(33.333% - 1rem)"
+                            minWidth="250px"
+                            maxWidth="100%"
+                        >
+                            <Card sx={{ height: '100%' }}>
+                                <CardContent>
+                                    <Typography variant="h6">{window.title}</Typography>
+                                    {window.sellers.length === 0 ? (
+                                        <Typography variant="body2" color="textSecondary">
+                                            No sales yet
+                                        </Typography>
+                                    ) : (
+                                        <List dense>
+                                            {window.sellers.map((seller, index) => (
+                                                <ListItem key={seller.medicationId} disableGutters>
+                                                    <ListItemText
+                                                        primary={`${index + 1}. ${seller.medicationName}`}
+                                                        secondary={`~${seller.units} units`}
+                                                    />
+                                                </ListItem>
+                                            ))}
+                                        </List>
+                                    )}
+                                </CardContent>
+                            </Card>
+                        </Box>
+                    ))}
+                </Box>
             </Box>
         </>
     );
@@ -107,11 +107,9 @@ const UserHomePage: React.FC = () => {
 
     const handleBuyAll = () => {
         if (cart.length === 0) return;
-        Promise.all(
-            cart.map(item =>
-                axios.post(`/users/buy/${item.id}`, { quantity: item.quantity })
-            )
-        )
+        axios.post('/users/checkout', {
+            items: cart.map(item => ({ medicationId: item.id, quantity: item.quantity }))
+        })
             .then(() => {
                 showSnackbar('Purchase successful!', 'success');
                 setCart([]);
@@ -0,0 +1,58 @@
+package com.example.pharmacy.controller.dto;
+
+import com.example.pharmacy.controller.dto.drug.GetDrugDto;
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Jackson serialization of the drug and sale list responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<GetDrugDto> drugs;
+    private List<GetSaleDto> sales;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        drugs = new ArrayList<>(rows);
+        sales = new ArrayList<>(rows);
+        var expiration = Date.valueOf("2030-01-01");
+        var saleDate = Timestamp.valueOf("2025-01-01 12:00:00");
+        for (int i = 0; i < rows; i++) {
+            drugs.add(new GetDrugDto(i, "Medication " + i, "Manufacturer " + (i % 50),
+                    BigDecimal.valueOf(i % 1000, 2), expiration, i % 7 > 0, i % 7));
+            sales.add(new GetSaleDto(i, "customer" + (i % 500), "Medication " + (i % 1000),
+                    1 + i % 5, BigDecimal.valueOf(i % 5000, 2), saleDate));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeDrugs() throws Exception {
+        return objectMapper.writeValueAsBytes(drugs);
+    }
+
+    @Benchmark
+    public byte[] serializeSales() throws Exception {
+        return objectMapper.writeValueAsBytes(sales);
+    }
+}
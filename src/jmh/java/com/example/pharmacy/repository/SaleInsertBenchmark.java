@@ -0,0 +1,150 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.PharmacyApplication;
+import com.example.pharmacy.infrastructure.entity.SalesEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks inserting sales through JPA with and without JDBC batching.
+ * The application context runs against an in-memory H2 database whose data source counts every statement
+ * execution, so the {@code roundTrips} counter shows how many times the database was called per iteration:
+ * about one per row with a batch size of 1, and about {@code rows / batchSize} plus the id generator
+ * calls once batching is on. JMH sums the counter over the measured iterations.
+ * H2 runs in process, so the timings mostly show the Hibernate side; the saved round trips
+ * pay off against a database across the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SaleInsertBenchmark {
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    /** Rows held in the persistence context before it is flushed and cleared. */
+    private static final int FLUSH_EVERY = 1000;
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private final AtomicLong executions = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Per-iteration counters reported next to the timing.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        /** Statements executed against the database. */
+        public long roundTrips;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sales;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS drugstore_db");
+        h2.setUser("sa");
+        DataSource dataSource = countingProxy(DataSource.class, h2);
+
+        context = new SpringApplicationBuilder(PharmacyApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("dataSource", dataSource))
+                .run(
+                        "--server.port=0",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--logging.level.com.example.pharmacy=WARN",
+                        "--outbox.relay.interval=3600000",
+                        "--suggest.refresh-interval=3600000",
+                        "--balance.snapshot.compaction-interval=3600000",
+                        "--idempotency.purge-interval=3600000",
+                        "--sales.stream.fetch-size=500"
+                );
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void insertSales(Counters counters) {
+        long before = executions.get();
+        var saleDate = new Timestamp(System.currentTimeMillis());
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < rows; i++) {
+                var sale = new SalesEntity();
+                sale.setCustomerId(i % 1000);
+                sale.setMedicationId(i % 500);
+                sale.setQuantity(1 + i % 3);
+                sale.setTotalPrice(BigDecimal.valueOf(i % 10000, 2));
+                sale.setSaleDate(saleDate);
+                entityManager.persist(sale);
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+
+        counters.roundTrips = executions.get() - before;
+    }
+
+    /**
+     * Wraps a JDBC object so that statement executions are counted, including on the
+     * connections and statements it hands out.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T countingProxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                executions.incrementAndGet();
+            }
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return countingProxy(Connection.class, connection);
+            }
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return countingProxy((Class<Statement>) method.getReturnType(), (Statement) result);
+            }
+            return result;
+        });
+    }
+}
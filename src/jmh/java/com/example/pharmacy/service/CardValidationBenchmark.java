@@ -0,0 +1,33 @@
+package com.example.pharmacy.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the regular expression card validation used by deposits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardValidationBenchmark {
+
+    private String cardNumber;
+    private String expiryDate;
+    private String cvc;
+
+    @Setup
+    public void setUp() {
+        cardNumber = "4111111111111111";
+        expiryDate = "12/29";
+        cvc = "123";
+    }
+
+    @Benchmark
+    public boolean isValidCard() {
+        return UserService.isValidCard(cardNumber, expiryDate, cvc);
+    }
+}
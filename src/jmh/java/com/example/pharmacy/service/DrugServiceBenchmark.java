@@ -0,0 +1,80 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.controller.dto.drug.GetDrugDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.service.cache.DrugCatalogCache;
+import com.example.pharmacy.service.search.DrugSearchIndex;
+import com.example.pharmacy.service.search.DrugSuggestTrie;
+import com.example.pharmacy.service.sync.CatalogChangeTracker;
+import com.example.pharmacy.service.sync.DrugChangeBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the entity to DTO mapping in {@link DrugService#getAll()}.
+ * The catalog cache is created with a size of zero, so every call maps the whole list,
+ * and the repository is an in-memory stub so no database time is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrugServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private DrugService drugService;
+
+    @Setup
+    public void setUp() {
+        List<MedicationsEntity> medications = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            var medication = new MedicationsEntity();
+            medication.setId(i);
+            medication.setName("Medication " + i);
+            medication.setManufacturer("Manufacturer " + (i % 50));
+            medication.setPrice(BigDecimal.valueOf(i % 1000, 2));
+            medication.setExpirationDate(Date.valueOf("2030-01-01"));
+            medication.setStockQuantity(i % 7);
+            medications.add(medication);
+        }
+
+        var repository = (DrugRepository) Proxy.newProxyInstance(
+                DrugRepository.class.getClassLoader(),
+                new Class<?>[]{DrugRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && (args == null || args.length == 0)) {
+                        return medications;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        drugService = new DrugService(
+                repository,
+                new DrugCatalogCache(0, Duration.ZERO),
+                new DrugSearchIndex(),
+                new DrugSuggestTrie(10),
+                new ObjectMapper(),
+                new CatalogChangeTracker(repository, null),
+                null,
+                new DrugChangeBroadcaster(1, 0, 1, 10000)
+        );
+    }
+
+    @Benchmark
+    public List<GetDrugDto> getAll() {
+        return drugService.getAll();
+    }
+}
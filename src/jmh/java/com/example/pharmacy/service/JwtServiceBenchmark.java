@@ -0,0 +1,68 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.infrastructure.entity.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JWT creation and the per-request verification done by the authentication filter.
+ * {@link #verifyLegacyThreeParses()} reproduces the old filter path, which derived a key,
+ * built a parser and verified the signature three times per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "zVhmS3cYxE7o7hxlPa/8iAYZ6zR2vH0ke+6ZrQwj6Hc=";
+
+    private JwtService jwtService;
+    private UserEntity user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtService, "JWT_VALIDITY", 3_600_000L);
+        jwtService.init();
+
+        user = new UserEntity();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setRole("CUSTOMER");
+        token = jwtService.createToken(user);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtService.createToken(user);
+    }
+
+    @Benchmark
+    public Object verify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public Object verifyLegacyThreeParses() {
+        Object last = null;
+        for (int i = 0; i < 3; i++) {
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            last = claims.getSubject();
+        }
+        return last;
+    }
+}
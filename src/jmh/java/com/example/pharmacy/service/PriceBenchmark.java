@@ -0,0 +1,31 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.service.valueObjects.Price;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creation of the {@link Price} value object, including validation and rounding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceBenchmark {
+
+    private BigDecimal value;
+
+    @Setup
+    public void setUp() {
+        value = new BigDecimal("12.34567");
+    }
+
+    @Benchmark
+    public Price create() {
+        return Price.create(value);
+    }
+}
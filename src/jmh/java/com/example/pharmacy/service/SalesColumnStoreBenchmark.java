@@ -0,0 +1,64 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.service.analytics.SalesColumnStore;
+import com.example.pharmacy.service.analytics.SalesColumnStore.Dimension;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parallel group-by scans of {@link SalesColumnStore}.
+ * Rows are spread over 5000 medications from 40 manufacturers and about a year of sale times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SalesColumnStoreBenchmark {
+
+    private static final int MEDICATIONS = 5000;
+    private static final int MANUFACTURERS = 40;
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    private SalesColumnStore store;
+    private SalesColumnStore.Query byManufacturerAndMonth;
+    private SalesColumnStore.Query byHour;
+
+    @Setup
+    public void setUp() {
+        store = new SalesColumnStore();
+        long start = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365);
+        long step = TimeUnit.DAYS.toMillis(365) / rows;
+        for (int i = 0; i < rows; i++) {
+            store.append(i % MEDICATIONS, i % 200_000, start + i * step, 100 + i % 10_000, 1 + (i & 3));
+        }
+
+        int[] manufacturerOf = new int[MEDICATIONS];
+        for (int i = 0; i < MEDICATIONS; i++) {
+            manufacturerOf[i] = i % MANUFACTURERS;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        byManufacturerAndMonth = new SalesColumnStore.Query(
+                List.of(Dimension.MANUFACTURER, Dimension.MONTH), Long.MIN_VALUE, Long.MAX_VALUE,
+                null, SalesColumnStore.NO_CUSTOMER, manufacturerOf, zone);
+        byHour = new SalesColumnStore.Query(
+                List.of(Dimension.HOUR), Long.MIN_VALUE, Long.MAX_VALUE,
+                null, SalesColumnStore.NO_CUSTOMER, manufacturerOf, zone);
+    }
+
+    @Benchmark
+    public SalesColumnStore.Result groupByManufacturerAndMonth() {
+        return store.query(byManufacturerAndMonth);
+    }
+
+    @Benchmark
+    public SalesColumnStore.Result groupByHour() {
+        return store.query(byHour);
+    }
+}
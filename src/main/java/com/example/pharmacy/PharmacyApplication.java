@@ -2,12 +2,15 @@ package com.example.pharmacy;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point of the Pharmacy Spring Boot application.
- * This class bootstraps the application using Spring Boot's auto-configuration.
+ * This class bootstraps the application using Spring Boot's auto-configuration
+ * and enables scheduled jobs such as balance snapshot compaction.
  */
 @SpringBootApplication
+@EnableScheduling
 public class PharmacyApplication {
 
     /**
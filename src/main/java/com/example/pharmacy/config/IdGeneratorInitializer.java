@@ -0,0 +1,90 @@
+package com.example.pharmacy.config;
+
+import com.example.pharmacy.infrastructure.entity.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the table-backed id generators past the ids already stored in their tables.
+ * Sales and outbox ids used to come from auto-increment columns, so on an existing database the generator rows
+ * either do not exist yet or start below the current maximum; without this, the first batch of inserts would
+ * collide with old rows. Runs once on startup, after Hibernate has updated the schema and before any request.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    private static final String QUALIFIED_TABLE = IdGenerators.SCHEMA + "." + IdGenerators.TABLE;
+
+    /** Generator row name to the tables whose ids it hands out; archived sales keep their ids. */
+    private static final Map<String, List<String>> GENERATED_TABLES = Map.of(
+            IdGenerators.SALES, List.of(IdGenerators.SCHEMA + ".sales", IdGenerators.SCHEMA + ".sales_archive"),
+            IdGenerators.SALE_OUTBOX, List.of(IdGenerators.SCHEMA + ".sale_outbox")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructs the initializer.
+     *
+     * @param jdbcTemplate        template used for the generator table updates
+     * @param transactionManager  transaction manager running each generator update in its own transaction
+     */
+    @Autowired
+    public IdGeneratorInitializer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Raises every generator row to at least the current maximum id plus one allocation block.
+     * The pooled optimizer hands out the block ending at the stored value, so the extra block keeps
+     * the first reserved range above the existing rows.
+     */
+    @PostConstruct
+    public void initialize() {
+        GENERATED_TABLES.forEach((name, tables) -> transactionTemplate.executeWithoutResult(status -> {
+            Long maxId = null;
+            for (String table : tables) {
+                Long tableMax = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+                if (tableMax != null && (maxId == null || tableMax > maxId)) {
+                    maxId = tableMax;
+                }
+            }
+            long floor = (maxId == null ? 0 : maxId) + IdGenerators.ALLOCATION_SIZE + 1;
+
+            int updated = jdbcTemplate.update(
+                    "update " + QUALIFIED_TABLE
+                            + " set " + IdGenerators.VALUE_COLUMN + " = ?"
+                            + " where " + IdGenerators.NAME_COLUMN + " = ? and " + IdGenerators.VALUE_COLUMN + " < ?",
+                    floor, name, floor);
+            if (updated > 0) {
+                logger.info("Moved id generator {} to {}", name, floor);
+                return;
+            }
+            Integer rows = jdbcTemplate.queryForObject(
+                    "select count(*) from " + QUALIFIED_TABLE + " where " + IdGenerators.NAME_COLUMN + " = ?",
+                    Integer.class, name);
+            if (rows != null && rows == 0 && maxId != null) {
+                jdbcTemplate.update(
+                        "insert into " + QUALIFIED_TABLE
+                                + " (" + IdGenerators.NAME_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") values (?, ?)",
+                        name, floor);
+                logger.info("Created id generator {} at {}", name, floor);
+            }
+        }));
+    }
+}
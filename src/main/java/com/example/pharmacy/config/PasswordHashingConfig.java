@@ -0,0 +1,43 @@
+package com.example.pharmacy.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the executor that runs BCrypt password checks for logins,
+ * keeping the CPU-heavy hashing off the servlet request threads.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * Defines a fixed-size executor with a bounded queue for password hashing.
+     * When the queue is full, new tasks are rejected instead of waiting, so callers can fail fast.
+     *
+     * @param threads       number of hashing threads; defaults to the number of available cores
+     * @param queueCapacity maximum number of logins waiting for a hashing thread
+     * @return the password hashing executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashExecutor(
+            @Value("${security.login.hash-threads:0}") int threads,
+            @Value("${security.login.queue-capacity:64}") int queueCapacity
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
@@ -2,10 +2,15 @@ package com.example.pharmacy.controller;
 
 import com.example.pharmacy.controller.dto.login.LoginRequestDto;
 import com.example.pharmacy.controller.dto.login.LoginResponseDto;
+import com.example.pharmacy.controller.dto.login.LoginStatsDto;
+import com.example.pharmacy.controller.dto.login.TokenCacheStatsDto;
 import com.example.pharmacy.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST controller for handling authentication-related requests.
  */
@@ -28,15 +33,40 @@ public class AuthController {
 
     /**
      * Handles user login by validating credentials and returning a JWT token with role.
+     * The request thread is released while the password is checked on the hashing executor.
      *
      * @param loginRequestDto the login request containing username and password
-     * @return a LoginResponseDto containing the JWT token and user role
+     * @return a future LoginResponseDto containing the JWT token and user role
      */
     @PostMapping("/login")
-    public LoginResponseDto login(@RequestBody LoginRequestDto loginRequestDto) {
+    public CompletableFuture<LoginResponseDto> login(@RequestBody LoginRequestDto loginRequestDto) {
         System.out.println("Received login request: " + loginRequestDto);
-        LoginResponseDto response = authService.login(loginRequestDto);
-        System.out.println("LoginController: Returning token = " + response.getToken());
-        return response;
+        return authService.login(loginRequestDto)
+                .thenApply(response -> {
+                    System.out.println("LoginController: Returning token = " + response.getToken());
+                    return response;
+                });
+    }
+
+    /**
+     * Retrieves queue depth and hash latency of the login hashing executor. Only accessible to admins.
+     *
+     * @return the login statistics
+     */
+    @GetMapping("/login-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LoginStatsDto getLoginStats() {
+        return authService.getLoginStats();
+    }
+
+    /**
+     * Retrieves statistics of the verified token cache. Only accessible to admins.
+     *
+     * @return the token cache statistics
+     */
+    @GetMapping("/token-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public TokenCacheStatsDto getTokenCacheStats() {
+        return authService.getTokenCacheStats();
     }
 }
@@ -1,15 +1,31 @@
 package com.example.pharmacy.controller;
 
+import com.example.pharmacy.controller.dto.CacheStatsDto;
 import com.example.pharmacy.controller.dto.drug.CreateDrugDto;
 import com.example.pharmacy.controller.dto.drug.CreateDrugResponseDto;
+import com.example.pharmacy.controller.dto.drug.DrugChangesDto;
+import com.example.pharmacy.controller.dto.drug.DrugPageDto;
+import com.example.pharmacy.controller.dto.drug.DrugSearchResultDto;
+import com.example.pharmacy.controller.dto.drug.DrugSuggestionDto;
 import com.example.pharmacy.controller.dto.drug.GetDrugDto;
 import com.example.pharmacy.service.DrugService;
+import com.example.pharmacy.service.DrugSuggestionService;
+import com.example.pharmacy.service.inputs.DrugFilter;
+import com.example.pharmacy.service.valueObjects.CatalogSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -22,25 +38,157 @@ public class DrugController {
     /** Service for handling drug-related operations. */
     private final DrugService drugService;
 
+    /** Service for type-ahead suggestions. */
+    private final DrugSuggestionService suggestionService;
+
     /**
-     * Constructs the DrugController with the provided DrugService.
+     * Constructs the DrugController with the provided services.
      *
-     * @param drugService the drug service
+     * @param drugService       the drug service
+     * @param suggestionService the suggestion service
      */
     @Autowired
-    public DrugController(DrugService drugService) {
+    public DrugController(DrugService drugService, DrugSuggestionService suggestionService) {
         this.drugService = drugService;
+        this.suggestionService = suggestionService;
     }
 
     /**
-     * Retrieves a list of all available drugs.
+     * Retrieves the full catalog of drugs as pre-encoded JSON, gzip-compressed when the client accepts it.
+     * Clients that send the current entity tag in {@code If-None-Match} get a 304 without a body.
      *
-     * @return a list of GetDrugDto objects
+     * @param ifNoneMatch    entity tags the client already has
+     * @param acceptEncoding encodings the client accepts
+     * @return the catalog as a JSON array of drugs, or 304 if it has not changed
      */
     @GetMapping
     @PreAuthorize("permitAll()")
-    public List<GetDrugDto> getAllDrugs() {
-        return drugService.getAll();
+    public ResponseEntity<byte[]> getAllDrugs(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        CatalogSnapshot snapshot = drugService.getCatalogSnapshot();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+
+        if (matchesAny(ifNoneMatch, snapshot.getEtag(), snapshot.getGzipEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        var response = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    /**
+     * Retrieves one page of drugs, sorted and filtered. Selected when the {@code page} parameter is present;
+     * without it the full catalog is returned.
+     *
+     * @param page           zero-based page number
+     * @param size           page size
+     * @param sort           sort property optionally followed by {@code ,asc} or {@code ,desc}
+     * @param manufacturer   only drugs from this manufacturer
+     * @param inStock        only drugs with stock left
+     * @param minPrice       lowest price
+     * @param maxPrice       highest price
+     * @param expiringBefore only drugs expiring before this date
+     * @param count          whether to include the total count; turn off to skip the count query
+     * @return the page of drugs
+     */
+    @GetMapping(params = "page")
+    @PreAuthorize("permitAll()")
+    public DrugPageDto getDrugPage(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String manufacturer,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiringBefore,
+            @RequestParam(defaultValue = "true") boolean count
+    ) {
+        var filter = new DrugFilter(
+                manufacturer,
+                inStock,
+                minPrice,
+                maxPrice,
+                expiringBefore == null ? null : Date.valueOf(expiringBefore)
+        );
+        return drugService.getPage(filter, page, size, sort, count);
+    }
+
+    /**
+     * Retrieves the catalog changes after a version, for clients that keep a local copy of the catalog.
+     * Pass the returned version as {@code since} next time; {@code since=0} returns the whole catalog.
+     *
+     * @param since the version the client is in sync with
+     * @param limit maximum number of changes
+     * @return created or updated drugs, deleted drug IDs and the new version
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public DrugChangesDto getChanges(@RequestParam(defaultValue = "0") long since, @RequestParam(defaultValue = "1000") int limit) {
+        return drugService.getChanges(since, limit);
+    }
+
+    /**
+     * Streams stock and price changes as Server-Sent Events. Each {@code stock} event carries the new
+     * stock, price and change version of one drug; a {@code resync} event means changes were dropped
+     * and the client should catch up through {@code /api/drugs/changes}.
+     *
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public SseEmitter streamChanges() {
+        return drugService.streamChanges();
+    }
+
+    /**
+     * Searches drugs by name and manufacturer, including partial words.
+     *
+     * @param q     the search text
+     * @param limit maximum number of hits
+     * @return hits ordered by relevance
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public List<DrugSearchResultDto> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return drugService.search(q, limit);
+    }
+
+    /**
+     * Suggests drug names starting with the typed prefix, best sellers first.
+     *
+     * @param prefix the typed prefix
+     * @param limit  maximum number of suggestions
+     * @return suggestions ordered by recent sales volume
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public List<DrugSuggestionDto> suggest(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return suggestionService.suggest(prefix, limit);
+    }
+
+    /**
+     * Retrieves hit and miss statistics of the drug catalog cache. Only accessible to admins.
+     *
+     * @return the cache statistics
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CacheStatsDto getCacheStats() {
+        return drugService.getCacheStats();
     }
 
     /**
@@ -92,4 +240,33 @@ public class DrugController {
     public ResponseEntity<CreateDrugResponseDto> updateDrug(@PathVariable int id, @RequestBody CreateDrugDto dto) {
         return ResponseEntity.ok(drugService.updateDrug(id, dto));
     }
+
+    /**
+     * Checks an {@code If-None-Match} header against the current entity tags.
+     * Weak tags are compared by their opaque value, as the header requires.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param etags       the current quoted entity tags
+     * @return true if the header lists one of the tags or is {@code *}
+     */
+    private static boolean matchesAny(String ifNoneMatch, String... etags) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            for (String etag : etags) {
+                if (tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
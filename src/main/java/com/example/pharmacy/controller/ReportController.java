@@ -0,0 +1,101 @@
+package com.example.pharmacy.controller;
+
+import com.example.pharmacy.controller.dto.report.RevenueReportDto;
+import com.example.pharmacy.controller.dto.report.SalesAnalyticsDto;
+import com.example.pharmacy.controller.dto.report.TopSellersDto;
+import com.example.pharmacy.service.SalesAnalyticsService;
+import com.example.pharmacy.service.SalesReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller for sales reports. Accessible only to admins.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    /** Service answering reports from the daily sales rollup and the top seller tracker. */
+    private final SalesReportService salesReportService;
+
+    /** Service answering ad-hoc queries from the in-memory sales column store. */
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * Constructs the ReportController with the given services.
+     *
+     * @param salesReportService    the sales report service
+     * @param salesAnalyticsService the sales analytics service
+     */
+    @Autowired
+    public ReportController(SalesReportService salesReportService, SalesAnalyticsService salesAnalyticsService) {
+        this.salesReportService = salesReportService;
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    /**
+     * Reports units and revenue within a date range, read from the daily rollup rather than the raw sales.
+     *
+     * @param from    first day, inclusive; defaults to 30 days before {@code to}
+     * @param to      last day, inclusive; defaults to today
+     * @param groupBy one of {@code day}, {@code week}, {@code month} or {@code medication}
+     * @return the revenue report
+     */
+    @GetMapping("/revenue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RevenueReportDto getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy
+    ) {
+        return salesReportService.getRevenue(from, to, groupBy);
+    }
+
+    /**
+     * Retrieves the best-selling medications of the last hour, day and week.
+     * Units are estimates kept in memory as sales happen; they may be slightly too high, never too low.
+     *
+     * @param limit maximum number of medications per window
+     * @return the best sellers per window
+     */
+    @GetMapping("/top-sellers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public TopSellersDto getTopSellers(@RequestParam(defaultValue = "20") int limit) {
+        return salesReportService.getTopSellers(limit);
+    }
+
+    /**
+     * Groups all sales by one or two dimensions, for example {@code groupBy=manufacturer,month}
+     * or {@code groupBy=hour}, and sums units, revenue and number of sales per group.
+     * Answered by a parallel scan of the in-memory column store, not the database.
+     *
+     * @param groupBy      comma-separated dimensions: medication, manufacturer, customer, year, month, day, dayOfWeek or hour
+     * @param from         first sale day, inclusive
+     * @param to           last sale day, inclusive
+     * @param medicationId only sales of this medication
+     * @param customerId   only sales of this customer
+     * @param manufacturer only sales of medications by this manufacturer
+     * @param limit        maximum number of groups returned
+     * @return the groups with their totals
+     */
+    @GetMapping("/sales")
+    @PreAuthorize("hasRole('ADMIN')")
+    public SalesAnalyticsDto querySales(
+            @RequestParam String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer medicationId,
+            @RequestParam(required = false) Integer customerId,
+            @RequestParam(required = false) String manufacturer,
+            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        return salesAnalyticsService.query(groupBy, from, to, medicationId, customerId, manufacturer, limit);
+    }
+}
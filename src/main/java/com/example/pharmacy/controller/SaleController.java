@@ -3,12 +3,16 @@ package com.example.pharmacy.controller;
 import com.example.pharmacy.controller.dto.sale.CreateSaleDto;
 import com.example.pharmacy.controller.dto.sale.CreateSaleResponseDto;
 import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import com.example.pharmacy.controller.dto.sale.OutboxStatsDto;
+import com.example.pharmacy.controller.dto.sale.SalePageDto;
 import com.example.pharmacy.service.SaleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -44,6 +48,32 @@ public class SaleController {
         return saleService.getAll();
     }
 
+    /**
+     * Streams all sales as newline-delimited JSON. Accessible only to admins.
+     * Rows are written while they are read from the database, one sale per line.
+     *
+     * @return a streaming NDJSON response body
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSales() {
+        StreamingResponseBody body = saleService::exportAll;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Retrieves the lag and batch statistics of the sale event relay. Accessible only to admins.
+     *
+     * @return the relay statistics
+     */
+    @GetMapping("/outbox/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public OutboxStatsDto getOutboxStats() {
+        return saleService.getOutboxStats();
+    }
+
     /**
      * Retrieves a specific sale by ID. Accessible only to admins.
      *
@@ -70,15 +100,21 @@ public class SaleController {
     }
 
     /**
-     * Retrieves all sales for the currently authenticated customer.
+     * Retrieves one page of sales for the currently authenticated customer, newest first.
      *
      * @param authHeader the Authorization header containing the Bearer token
-     * @return a list of the customer's sales
+     * @param cursor the {@code nextCursor} of the previous page; omit for the first page
+     * @param size the maximum number of sales on the page
+     * @return a page of the customer's sales with the cursor for the next page
      */
     @GetMapping("/my")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public List<GetSaleDto> getOwnSales(@RequestHeader("Authorization") String authHeader) {
+    public SalePageDto getOwnSales(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
         String token = authHeader.substring(7); // Strip "Bearer "
-        return saleService.getSalesForCurrentCustomer(token);
+        return saleService.getSalesForCurrentCustomer(token, cursor, size);
     }
 }
@@ -1,7 +1,10 @@
 package com.example.pharmacy.controller;
 
 import com.example.pharmacy.controller.dto.BuyMedicationRequestDto;
+import com.example.pharmacy.controller.dto.CheckoutRequestDto;
+import com.example.pharmacy.controller.dto.sale.CreateSaleResponseDto;
 import com.example.pharmacy.controller.dto.user.*;
+import com.example.pharmacy.service.IdempotencyService;
 import com.example.pharmacy.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -15,11 +18,15 @@ import java.util.List;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, IdempotencyService idempotencyService) {
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/{id}")
@@ -36,20 +43,40 @@ public class UserController {
     @GetMapping("/me")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
     public UserResponseDto getMe(Principal principal) {
-        var user = userService.getUserByUsername(principal.getName());
-        return new UserResponseDto(user.getId(), user.getUsername(), user.getRole(), user.getBalance());
+        return userService.getCurrentUser(principal);
     }
 
     @PostMapping("/deposit")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public void deposit(@RequestBody CreateDepositRequestDto dto, Principal principal) {
-        userService.depositMoney(principal, dto);
+    public void deposit(
+            @RequestBody CreateDepositRequestDto dto,
+            Principal principal,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        idempotencyService.execute(principal.getName(), idempotencyKey, "deposit", dto.fingerprint(), Void.class, () -> {
+            userService.depositMoney(principal, dto);
+            return null;
+        });
     }
 
     @PostMapping("/buy/{medicationId}")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public void buyDrug(@PathVariable Long medicationId, @RequestBody BuyMedicationRequestDto dto, Principal principal) {
-        userService.buyMedication(principal, medicationId, dto.getQuantity());
+    public void buyDrug(
+            @PathVariable Long medicationId,
+            @RequestBody BuyMedicationRequestDto dto,
+            Principal principal,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        idempotencyService.execute(principal.getName(), idempotencyKey, "buy:" + medicationId, dto, Void.class, () -> {
+            userService.buyMedication(principal, medicationId, dto.getQuantity());
+            return null;
+        });
+    }
+
+    @PostMapping("/checkout")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public List<CreateSaleResponseDto> checkout(@RequestBody CheckoutRequestDto dto, Principal principal) {
+        return userService.checkout(principal, dto);
     }
 
     @GetMapping("/customers")
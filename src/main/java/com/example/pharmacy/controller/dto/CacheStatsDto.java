@@ -0,0 +1,87 @@
+package com.example.pharmacy.controller.dto;
+
+/**
+ * Data Transfer Object for reporting the statistics of an in-memory cache.
+ */
+public class CacheStatsDto {
+
+    /** Current number of cached entries. */
+    private long size;
+
+    /** Number of lookups served from the cache. */
+    private long hitCount;
+
+    /** Number of lookups that had to load the value. */
+    private long missCount;
+
+    /** Ratio of hits to all lookups. */
+    private double hitRate;
+
+    /** Number of entries removed because of the size bound or TTL. */
+    private long evictionCount;
+
+    /** Default constructor. */
+    public CacheStatsDto() {}
+
+    /**
+     * Constructs a CacheStatsDto with all statistics.
+     *
+     * @param size the current number of entries
+     * @param hitCount the number of hits
+     * @param missCount the number of misses
+     * @param hitRate the ratio of hits to all lookups
+     * @param evictionCount the number of evicted entries
+     */
+    public CacheStatsDto(long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Gets the current number of cached entries.
+     *
+     * @return the entry count
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that had to load the value.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the ratio of hits to all lookups.
+     *
+     * @return the hit rate
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * Gets the number of entries removed because of the size bound or TTL.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pharmacy.controller.dto;
+
+/**
+ * Data Transfer Object for a single cart line in a checkout request.
+ * Contains the medication to buy and its quantity.
+ */
+public class CheckoutItemDto {
+
+    /** ID of the medication to buy. */
+    private Long medicationId;
+
+    /** Quantity of the medication to buy. */
+    private int quantity;
+
+    /**
+     * Gets the ID of the medication to buy.
+     *
+     * @return the medication ID
+     */
+    public Long getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Sets the ID of the medication to buy.
+     *
+     * @param medicationId the medication ID to set
+     */
+    public void setMedicationId(Long medicationId) {
+        this.medicationId = medicationId;
+    }
+
+    /**
+     * Gets the quantity of medication to buy.
+     *
+     * @return the quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Sets the quantity of medication to buy.
+     *
+     * @param quantity the quantity to set
+     */
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.pharmacy.controller.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for checking out a whole cart in one request.
+ * Contains the cart lines to be purchased.
+ */
+public class CheckoutRequestDto {
+
+    /** Cart lines to buy. */
+    private List<CheckoutItemDto> items;
+
+    /**
+     * Gets the cart lines to buy.
+     *
+     * @return the cart lines
+     */
+    public List<CheckoutItemDto> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the cart lines to buy.
+     *
+     * @param items the cart lines to set
+     */
+    public void setItems(List<CheckoutItemDto> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.pharmacy.controller.dto.drug;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the catalog changes after a given version.
+ */
+public class DrugChangesDto {
+
+    /** Version to pass as {@code since} on the next request. */
+    private long version;
+
+    /** Whether more changes are waiting beyond {@link #version}. */
+    private boolean hasMore;
+
+    /** Drugs created or updated since the requested version, in their current state. */
+    private List<GetDrugDto> upserts;
+
+    /** IDs of drugs deleted since the requested version. */
+    private List<Integer> deletes;
+
+    /** Default constructor. */
+    public DrugChangesDto() {}
+
+    /**
+     * Constructs a DrugChangesDto with all details.
+     *
+     * @param version the version to sync from next time
+     * @param hasMore whether more changes are waiting
+     * @param upserts the created or updated drugs
+     * @param deletes the IDs of the deleted drugs
+     */
+    public DrugChangesDto(long version, boolean hasMore, List<GetDrugDto> upserts, List<Integer> deletes) {
+        this.version = version;
+        this.hasMore = hasMore;
+        this.upserts = upserts;
+        this.deletes = deletes;
+    }
+
+    /**
+     * Gets the version to sync from next time.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Whether more changes are waiting.
+     *
+     * @return true if the client should request again right away
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Gets the created or updated drugs.
+     *
+     * @return the drugs
+     */
+    public List<GetDrugDto> getUpserts() {
+        return upserts;
+    }
+
+    /**
+     * Gets the IDs of the deleted drugs.
+     *
+     * @return the IDs
+     */
+    public List<Integer> getDeletes() {
+        return deletes;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.pharmacy.controller.dto.drug;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a single page of drugs.
+ * The totals are only filled in when the count was requested.
+ */
+public class DrugPageDto {
+
+    /** Drugs on this page. */
+    private List<GetDrugDto> items;
+
+    /** Zero-based page number. */
+    private int page;
+
+    /** Requested page size. */
+    private int size;
+
+    /** Whether a further page exists. */
+    private boolean hasNext;
+
+    /** Number of drugs matching the filter, or null if the count was skipped. */
+    private Long totalElements;
+
+    /** Number of pages, or null if the count was skipped. */
+    private Integer totalPages;
+
+    /** Default constructor. */
+    public DrugPageDto() {}
+
+    /**
+     * Constructs a DrugPageDto with all details.
+     *
+     * @param items the drugs on this page
+     * @param page the zero-based page number
+     * @param size the requested page size
+     * @param hasNext whether a further page exists
+     * @param totalElements the number of matching drugs, or null
+     * @param totalPages the number of pages, or null
+     */
+    public DrugPageDto(List<GetDrugDto> items, int page, int size, boolean hasNext, Long totalElements, Integer totalPages) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    /**
+     * Gets the drugs on this page.
+     *
+     * @return the drugs
+     */
+    public List<GetDrugDto> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the page number.
+     *
+     * @return the zero-based page number
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Gets the page size.
+     *
+     * @return the requested page size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Whether a further page exists.
+     *
+     * @return true if there is a next page
+     */
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Gets the number of matching drugs.
+     *
+     * @return the total, or null if the count was skipped
+     */
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * Gets the number of pages.
+     *
+     * @return the page count, or null if the count was skipped
+     */
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.pharmacy.controller.dto.drug;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for a single ranked drug search hit.
+ * Stock is not included because it changes with every sale; use the drug endpoint for it.
+ */
+public class DrugSearchResultDto {
+
+    /** Unique identifier for the drug. */
+    private int id;
+
+    /** Name of the drug. */
+    private String name;
+
+    /** Manufacturer of the drug. */
+    private String manufacturer;
+
+    /** Price of the drug. */
+    private BigDecimal price;
+
+    /** Relevance score; higher is better. */
+    private double score;
+
+    /** Default constructor. */
+    public DrugSearchResultDto() {}
+
+    /**
+     * Constructs a DrugSearchResultDto with all details.
+     *
+     * @param id the drug ID
+     * @param name the name of the drug
+     * @param manufacturer the manufacturer of the drug
+     * @param price the price of the drug
+     * @param score the relevance score
+     */
+    public DrugSearchResultDto(int id, String name, String manufacturer, BigDecimal price, double score) {
+        this.id = id;
+        this.name = name;
+        this.manufacturer = manufacturer;
+        this.price = price;
+        this.score = score;
+    }
+
+    /**
+     * Gets the drug ID.
+     *
+     * @return the ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of the drug.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the manufacturer of the drug.
+     *
+     * @return the manufacturer
+     */
+    public String getManufacturer() {
+        return manufacturer;
+    }
+
+    /**
+     * Gets the price of the drug.
+     *
+     * @return the price
+     */
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    /**
+     * Gets the relevance score.
+     *
+     * @return the score
+     */
+    public double getScore() {
+        return score;
+    }
+}
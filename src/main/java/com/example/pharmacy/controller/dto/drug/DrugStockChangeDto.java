@@ -0,0 +1,75 @@
+package com.example.pharmacy.controller.dto.drug;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for a stock or price change pushed to catalog subscribers.
+ */
+public class DrugStockChangeDto {
+
+    /** Unique identifier for the drug. */
+    private int id;
+
+    /** Quantity of the drug in stock after the change. */
+    private int stockQuantity;
+
+    /** Price of the drug after the change. */
+    private BigDecimal price;
+
+    /** Catalog change version of the change; clients may ignore changes older than their mirror. */
+    private long version;
+
+    /** Default constructor. */
+    public DrugStockChangeDto() {}
+
+    /**
+     * Constructs a DrugStockChangeDto with all details.
+     *
+     * @param id the drug ID
+     * @param stockQuantity the quantity in stock
+     * @param price the price
+     * @param version the catalog change version
+     */
+    public DrugStockChangeDto(int id, int stockQuantity, BigDecimal price, long version) {
+        this.id = id;
+        this.stockQuantity = stockQuantity;
+        this.price = price;
+        this.version = version;
+    }
+
+    /**
+     * Gets the drug ID.
+     *
+     * @return the ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the stock quantity.
+     *
+     * @return the stock quantity
+     */
+    public int getStockQuantity() {
+        return stockQuantity;
+    }
+
+    /**
+     * Gets the price.
+     *
+     * @return the price
+     */
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    /**
+     * Gets the catalog change version.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pharmacy.controller.dto.drug;
+
+/**
+ * Data Transfer Object for a single type-ahead suggestion.
+ */
+public class DrugSuggestionDto {
+
+    /** Unique identifier for the drug. */
+    private int id;
+
+    /** Name of the drug. */
+    private String name;
+
+    /** Units sold within the popularity window; suggestions are ranked by this. */
+    private long unitsSold;
+
+    /** Default constructor. */
+    public DrugSuggestionDto() {}
+
+    /**
+     * Constructs a DrugSuggestionDto with all details.
+     *
+     * @param id the drug ID
+     * @param name the name of the drug
+     * @param unitsSold the recent sales volume
+     */
+    public DrugSuggestionDto(int id, String name, long unitsSold) {
+        this.id = id;
+        this.name = name;
+        this.unitsSold = unitsSold;
+    }
+
+    /**
+     * Gets the drug ID.
+     *
+     * @return the ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the drug name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the recent sales volume.
+     *
+     * @return the units sold
+     */
+    public long getUnitsSold() {
+        return unitsSold;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.pharmacy.controller.dto.login;
+
+/**
+ * Data Transfer Object for reporting the load on the password hashing executor used by logins.
+ */
+public class LoginStatsDto {
+
+    /** Number of hashing threads. */
+    private int poolSize;
+
+    /** Number of threads currently hashing a password. */
+    private int activeThreads;
+
+    /** Number of logins waiting for a hashing thread. */
+    private int queueDepth;
+
+    /** Number of additional logins the queue can accept. */
+    private int queueRemainingCapacity;
+
+    /** Number of password checks completed since startup. */
+    private long completedHashes;
+
+    /** Number of logins rejected because the queue was full. */
+    private long rejectedLogins;
+
+    /** Average duration of one password check, in milliseconds. */
+    private double averageHashMillis;
+
+    /** Longest duration of one password check, in milliseconds. */
+    private double maxHashMillis;
+
+    /** Default constructor. */
+    public LoginStatsDto() {}
+
+    /**
+     * Constructs a LoginStatsDto with all statistics.
+     *
+     * @param poolSize the number of hashing threads
+     * @param activeThreads the number of busy hashing threads
+     * @param queueDepth the number of queued logins
+     * @param queueRemainingCapacity the remaining queue capacity
+     * @param completedHashes the number of completed password checks
+     * @param rejectedLogins the number of rejected logins
+     * @param averageHashMillis the average password check duration
+     * @param maxHashMillis the longest password check duration
+     */
+    public LoginStatsDto(int poolSize, int activeThreads, int queueDepth, int queueRemainingCapacity,
+                         long completedHashes, long rejectedLogins, double averageHashMillis, double maxHashMillis) {
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.queueRemainingCapacity = queueRemainingCapacity;
+        this.completedHashes = completedHashes;
+        this.rejectedLogins = rejectedLogins;
+        this.averageHashMillis = averageHashMillis;
+        this.maxHashMillis = maxHashMillis;
+    }
+
+    /**
+     * Gets the number of hashing threads.
+     *
+     * @return the pool size
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Gets the number of threads currently hashing a password.
+     *
+     * @return the active thread count
+     */
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    /**
+     * Gets the number of logins waiting for a hashing thread.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Gets the number of additional logins the queue can accept.
+     *
+     * @return the remaining queue capacity
+     */
+    public int getQueueRemainingCapacity() {
+        return queueRemainingCapacity;
+    }
+
+    /**
+     * Gets the number of password checks completed since startup.
+     *
+     * @return the completed hash count
+     */
+    public long getCompletedHashes() {
+        return completedHashes;
+    }
+
+    /**
+     * Gets the number of logins rejected because the queue was full.
+     *
+     * @return the rejected login count
+     */
+    public long getRejectedLogins() {
+        return rejectedLogins;
+    }
+
+    /**
+     * Gets the average duration of one password check.
+     *
+     * @return the average duration in milliseconds
+     */
+    public double getAverageHashMillis() {
+        return averageHashMillis;
+    }
+
+    /**
+     * Gets the longest duration of one password check.
+     *
+     * @return the maximum duration in milliseconds
+     */
+    public double getMaxHashMillis() {
+        return maxHashMillis;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.pharmacy.controller.dto.login;
+
+import com.example.pharmacy.controller.dto.CacheStatsDto;
+
+/**
+ * Data Transfer Object for reporting the statistics of the verified token cache.
+ * Adds an estimate of the memory used by the cached tokens.
+ */
+public class TokenCacheStatsDto extends CacheStatsDto {
+
+    /** Estimated heap used by the cached tokens, in bytes. */
+    private long estimatedMemoryBytes;
+
+    /** Default constructor. */
+    public TokenCacheStatsDto() {}
+
+    /**
+     * Constructs a TokenCacheStatsDto with all statistics.
+     *
+     * @param size the current number of entries
+     * @param hitCount the number of hits
+     * @param missCount the number of misses
+     * @param hitRate the ratio of hits to all lookups
+     * @param evictionCount the number of evicted entries
+     * @param estimatedMemoryBytes the estimated memory use in bytes
+     */
+    public TokenCacheStatsDto(long size, long hitCount, long missCount, double hitRate, long evictionCount, long estimatedMemoryBytes) {
+        super(size, hitCount, missCount, hitRate, evictionCount);
+        this.estimatedMemoryBytes = estimatedMemoryBytes;
+    }
+
+    /**
+     * Gets the estimated heap used by the cached tokens.
+     *
+     * @return the estimated memory use in bytes
+     */
+    public long getEstimatedMemoryBytes() {
+        return estimatedMemoryBytes;
+    }
+}
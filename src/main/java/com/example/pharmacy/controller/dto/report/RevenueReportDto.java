@@ -0,0 +1,100 @@
+package com.example.pharmacy.controller.dto.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object for a revenue report over a date range.
+ */
+public class RevenueReportDto {
+
+    /** First day of the range, inclusive. */
+    private LocalDate from;
+
+    /** Last day of the range, inclusive. */
+    private LocalDate to;
+
+    /** Grouping of the lines: day, week, month or medication. */
+    private String groupBy;
+
+    /** Report lines; periods or medications without sales are left out. */
+    private List<RevenueRowDto> rows;
+
+    /** Units sold in the whole range. */
+    private long totalUnits;
+
+    /** Revenue of the whole range. */
+    private BigDecimal totalRevenue;
+
+    /** Default constructor. */
+    public RevenueReportDto() {}
+
+    /**
+     * Constructs a RevenueReportDto with all details.
+     *
+     * @param from the first day
+     * @param to the last day
+     * @param groupBy the grouping
+     * @param rows the report lines
+     * @param totalUnits the units sold in the range
+     * @param totalRevenue the revenue of the range
+     */
+    public RevenueReportDto(LocalDate from, LocalDate to, String groupBy, List<RevenueRowDto> rows,
+                            long totalUnits, BigDecimal totalRevenue) {
+        this.from = from;
+        this.to = to;
+        this.groupBy = groupBy;
+        this.rows = rows;
+        this.totalUnits = totalUnits;
+        this.totalRevenue = totalRevenue;
+    }
+
+    /**
+     * Gets the first day of the range.
+     * @return the first day
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the last day of the range.
+     * @return the last day
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the grouping.
+     * @return the grouping
+     */
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    /**
+     * Gets the report lines.
+     * @return the lines
+     */
+    public List<RevenueRowDto> getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the units sold in the range.
+     * @return the total units
+     */
+    public long getTotalUnits() {
+        return totalUnits;
+    }
+
+    /**
+     * Gets the revenue of the range.
+     * @return the total revenue
+     */
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+}
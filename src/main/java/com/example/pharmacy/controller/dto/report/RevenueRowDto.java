@@ -0,0 +1,103 @@
+package com.example.pharmacy.controller.dto.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for one line of a revenue report.
+ * Time groupings fill {@code periodStart}; the medication grouping fills {@code medicationId} and {@code medicationName}.
+ */
+public class RevenueRowDto {
+
+    /** First day of the day, week (Monday) or month the line covers; null when grouped by medication. */
+    private LocalDate periodStart;
+
+    /** ID of the medication; null when grouped by time. */
+    private Integer medicationId;
+
+    /** Name of the medication; null when grouped by time. */
+    private String medicationName;
+
+    /** Number of units sold. */
+    private long units;
+
+    /** Sum of the sale totals. */
+    private BigDecimal revenue;
+
+    /**
+     * Distinct customers per medication and day, summed over the line.
+     * A customer who bought on several days or several medications is counted once for each.
+     */
+    private long customers;
+
+    /** Default constructor. */
+    public RevenueRowDto() {}
+
+    /**
+     * Constructs a RevenueRowDto with all details.
+     *
+     * @param periodStart the first day of the period
+     * @param medicationId the medication ID
+     * @param medicationName the medication name
+     * @param units the units sold
+     * @param revenue the revenue
+     * @param customers the customer count
+     */
+    public RevenueRowDto(LocalDate periodStart, Integer medicationId, String medicationName,
+                         long units, BigDecimal revenue, long customers) {
+        this.periodStart = periodStart;
+        this.medicationId = medicationId;
+        this.medicationName = medicationName;
+        this.units = units;
+        this.revenue = revenue;
+        this.customers = customers;
+    }
+
+    /**
+     * Gets the first day of the period.
+     * @return the period start
+     */
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    /**
+     * Gets the medication ID.
+     * @return the medication ID
+     */
+    public Integer getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Gets the medication name.
+     * @return the medication name
+     */
+    public String getMedicationName() {
+        return medicationName;
+    }
+
+    /**
+     * Gets the units sold.
+     * @return the units
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Gets the revenue.
+     * @return the revenue
+     */
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * Gets the customer count.
+     * @return the customers
+     */
+    public long getCustomers() {
+        return customers;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.pharmacy.controller.dto.report;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of a sales analytics query.
+ */
+public class SalesAnalyticsDto {
+
+    /** Grouping dimensions, in the order of the row keys. */
+    private List<String> groupBy;
+
+    /** Groups with their totals. */
+    private List<SalesAnalyticsRowDto> rows;
+
+    /** Number of groups before the limit was applied. */
+    private int totalGroups;
+
+    /** Number of stored rows the scan looked at. */
+    private long rowsScanned;
+
+    /** Time the scan took, in milliseconds. */
+    private long elapsedMillis;
+
+    /** Default constructor. */
+    public SalesAnalyticsDto() {}
+
+    /**
+     * Constructs a SalesAnalyticsDto with all details.
+     *
+     * @param groupBy the grouping dimensions
+     * @param rows the groups
+     * @param totalGroups the number of groups before the limit
+     * @param rowsScanned the number of scanned rows
+     * @param elapsedMillis the scan time
+     */
+    public SalesAnalyticsDto(List<String> groupBy, List<SalesAnalyticsRowDto> rows, int totalGroups,
+                             long rowsScanned, long elapsedMillis) {
+        this.groupBy = groupBy;
+        this.rows = rows;
+        this.totalGroups = totalGroups;
+        this.rowsScanned = rowsScanned;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the grouping dimensions.
+     * @return the dimensions
+     */
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+
+    /**
+     * Gets the groups.
+     * @return the rows
+     */
+    public List<SalesAnalyticsRowDto> getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of groups before the limit.
+     * @return the group count
+     */
+    public int getTotalGroups() {
+        return totalGroups;
+    }
+
+    /**
+     * Gets the number of scanned rows.
+     * @return the scanned rows
+     */
+    public long getRowsScanned() {
+        return rowsScanned;
+    }
+
+    /**
+     * Gets the scan time.
+     * @return the elapsed milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
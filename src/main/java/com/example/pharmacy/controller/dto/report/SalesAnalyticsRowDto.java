@@ -0,0 +1,72 @@
+package com.example.pharmacy.controller.dto.report;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Data Transfer Object for one group of a sales analytics query.
+ */
+public class SalesAnalyticsRowDto {
+
+    /** Value of each grouping dimension, in the order they were requested. */
+    private List<String> keys;
+
+    /** Number of units sold. */
+    private long units;
+
+    /** Sum of the sale totals. */
+    private BigDecimal revenue;
+
+    /** Number of sales. */
+    private long sales;
+
+    /** Default constructor. */
+    public SalesAnalyticsRowDto() {}
+
+    /**
+     * Constructs a SalesAnalyticsRowDto with all details.
+     *
+     * @param keys the dimension values
+     * @param units the units sold
+     * @param revenue the revenue
+     * @param sales the number of sales
+     */
+    public SalesAnalyticsRowDto(List<String> keys, long units, BigDecimal revenue, long sales) {
+        this.keys = keys;
+        this.units = units;
+        this.revenue = revenue;
+        this.sales = sales;
+    }
+
+    /**
+     * Gets the dimension values.
+     * @return the keys
+     */
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Gets the units sold.
+     * @return the units
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Gets the revenue.
+     * @return the revenue
+     */
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * Gets the number of sales.
+     * @return the sales
+     */
+    public long getSales() {
+        return sales;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pharmacy.controller.dto.report;
+
+/**
+ * Data Transfer Object for a best-selling medication within a time window.
+ */
+public class TopSellerDto {
+
+    /** ID of the medication. */
+    private int medicationId;
+
+    /** Name of the medication. */
+    private String medicationName;
+
+    /** Estimated units sold in the window; may be slightly too high, never too low. */
+    private long units;
+
+    /** Default constructor. */
+    public TopSellerDto() {}
+
+    /**
+     * Constructs a TopSellerDto with all details.
+     *
+     * @param medicationId the medication ID
+     * @param medicationName the medication name
+     * @param units the estimated units sold
+     */
+    public TopSellerDto(int medicationId, String medicationName, long units) {
+        this.medicationId = medicationId;
+        this.medicationName = medicationName;
+        this.units = units;
+    }
+
+    /**
+     * Gets the medication ID.
+     * @return the medication ID
+     */
+    public int getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Gets the medication name.
+     * @return the medication name
+     */
+    public String getMedicationName() {
+        return medicationName;
+    }
+
+    /**
+     * Gets the estimated units sold.
+     * @return the units
+     */
+    public long getUnits() {
+        return units;
+    }
+}
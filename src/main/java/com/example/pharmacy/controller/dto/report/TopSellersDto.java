@@ -0,0 +1,58 @@
+package com.example.pharmacy.controller.dto.report;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the best-selling medications of the last hour, day and week.
+ */
+public class TopSellersDto {
+
+    /** Best sellers of the last hour, highest first. */
+    private List<TopSellerDto> hour;
+
+    /** Best sellers of the last day, highest first. */
+    private List<TopSellerDto> day;
+
+    /** Best sellers of the last week, highest first. */
+    private List<TopSellerDto> week;
+
+    /** Default constructor. */
+    public TopSellersDto() {}
+
+    /**
+     * Constructs a TopSellersDto with all details.
+     *
+     * @param hour the best sellers of the last hour
+     * @param day the best sellers of the last day
+     * @param week the best sellers of the last week
+     */
+    public TopSellersDto(List<TopSellerDto> hour, List<TopSellerDto> day, List<TopSellerDto> week) {
+        this.hour = hour;
+        this.day = day;
+        this.week = week;
+    }
+
+    /**
+     * Gets the best sellers of the last hour.
+     * @return the hourly list
+     */
+    public List<TopSellerDto> getHour() {
+        return hour;
+    }
+
+    /**
+     * Gets the best sellers of the last day.
+     * @return the daily list
+     */
+    public List<TopSellerDto> getDay() {
+        return day;
+    }
+
+    /**
+     * Gets the best sellers of the last week.
+     * @return the weekly list
+     */
+    public List<TopSellerDto> getWeek() {
+        return week;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.pharmacy.controller.dto.sale;
+
+/**
+ * Data Transfer Object for the state of the sale event relay.
+ */
+public class OutboxStatsDto {
+
+    /** Number of events waiting in the outbox. */
+    private long pendingEvents;
+
+    /** Age of the oldest event in the last batch when it was dispatched, in milliseconds. */
+    private long lastLagMillis;
+
+    /** Highest lag seen since startup, in milliseconds. */
+    private long maxLagMillis;
+
+    /** Number of events in the last batch. */
+    private int lastBatchSize;
+
+    /** Number of batches dispatched since startup. */
+    private long batchesDispatched;
+
+    /** Number of events dispatched since startup. */
+    private long eventsDispatched;
+
+    /** Number of batches that a sink rejected and that will be retried. */
+    private long failedBatches;
+
+    /** Average time to dispatch a batch to all sinks, in milliseconds. */
+    private double averageBatchMillis;
+
+    /** Default constructor. */
+    public OutboxStatsDto() {}
+
+    /**
+     * Constructs an OutboxStatsDto with all details.
+     *
+     * @param pendingEvents the number of waiting events
+     * @param lastLagMillis the lag of the last batch
+     * @param maxLagMillis the highest lag
+     * @param lastBatchSize the size of the last batch
+     * @param batchesDispatched the number of dispatched batches
+     * @param eventsDispatched the number of dispatched events
+     * @param failedBatches the number of failed batches
+     * @param averageBatchMillis the average batch dispatch time
+     */
+    public OutboxStatsDto(long pendingEvents, long lastLagMillis, long maxLagMillis, int lastBatchSize,
+                          long batchesDispatched, long eventsDispatched, long failedBatches, double averageBatchMillis) {
+        this.pendingEvents = pendingEvents;
+        this.lastLagMillis = lastLagMillis;
+        this.maxLagMillis = maxLagMillis;
+        this.lastBatchSize = lastBatchSize;
+        this.batchesDispatched = batchesDispatched;
+        this.eventsDispatched = eventsDispatched;
+        this.failedBatches = failedBatches;
+        this.averageBatchMillis = averageBatchMillis;
+    }
+
+    /**
+     * Gets the number of waiting events.
+     *
+     * @return the pending events
+     */
+    public long getPendingEvents() {
+        return pendingEvents;
+    }
+
+    /**
+     * Gets the lag of the last batch.
+     *
+     * @return the lag in milliseconds
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    /**
+     * Gets the highest lag since startup.
+     *
+     * @return the lag in milliseconds
+     */
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    /**
+     * Gets the size of the last batch.
+     *
+     * @return the batch size
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Gets the number of dispatched batches.
+     *
+     * @return the batch count
+     */
+    public long getBatchesDispatched() {
+        return batchesDispatched;
+    }
+
+    /**
+     * Gets the number of dispatched events.
+     *
+     * @return the event count
+     */
+    public long getEventsDispatched() {
+        return eventsDispatched;
+    }
+
+    /**
+     * Gets the number of failed batches.
+     *
+     * @return the failure count
+     */
+    public long getFailedBatches() {
+        return failedBatches;
+    }
+
+    /**
+     * Gets the average batch dispatch time.
+     *
+     * @return the average in milliseconds
+     */
+    public double getAverageBatchMillis() {
+        return averageBatchMillis;
+    }
+}
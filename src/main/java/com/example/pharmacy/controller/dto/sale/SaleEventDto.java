@@ -0,0 +1,119 @@
+package com.example.pharmacy.controller.dto.sale;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Data Transfer Object for a sale event delivered to downstream consumers.
+ * Delivery is at least once; consumers should drop events whose ID they have already seen.
+ */
+public class SaleEventDto {
+
+    /** Unique identifier of the event. */
+    private long eventId;
+
+    /** ID of the sale. */
+    private int saleId;
+
+    /** ID of the customer who bought. */
+    private Integer customerId;
+
+    /** ID of the medication sold. */
+    private Integer medicationId;
+
+    /** Number of units sold. */
+    private int quantity;
+
+    /** Total price of the sale. */
+    private BigDecimal totalPrice;
+
+    /** Time of the sale. */
+    private Timestamp saleDate;
+
+    /** Default constructor. */
+    public SaleEventDto() {}
+
+    /**
+     * Constructs a SaleEventDto with all details.
+     *
+     * @param eventId the event ID
+     * @param saleId the sale ID
+     * @param customerId the customer ID
+     * @param medicationId the medication ID
+     * @param quantity the quantity sold
+     * @param totalPrice the total price
+     * @param saleDate the sale date
+     */
+    public SaleEventDto(long eventId, int saleId, Integer customerId, Integer medicationId, int quantity, BigDecimal totalPrice, Timestamp saleDate) {
+        this.eventId = eventId;
+        this.saleId = saleId;
+        this.customerId = customerId;
+        this.medicationId = medicationId;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.saleDate = saleDate;
+    }
+
+    /**
+     * Gets the event ID.
+     *
+     * @return the event ID
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the sale ID.
+     *
+     * @return the sale ID
+     */
+    public int getSaleId() {
+        return saleId;
+    }
+
+    /**
+     * Gets the customer ID.
+     *
+     * @return the customer ID
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the medication ID.
+     *
+     * @return the medication ID
+     */
+    public Integer getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Gets the quantity sold.
+     *
+     * @return the quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Gets the total price.
+     *
+     * @return the total price
+     */
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Gets the sale date.
+     *
+     * @return the sale date
+     */
+    public Timestamp getSaleDate() {
+        return saleDate;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.pharmacy.controller.dto.sale;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a single page of sales retrieved with keyset pagination.
+ */
+public class SalePageDto {
+
+    /** Sales on this page, newest first. */
+    private List<GetSaleDto> items;
+
+    /** Opaque cursor for the next page, or null if this is the last page. */
+    private String nextCursor;
+
+    /** Default constructor. */
+    public SalePageDto() {}
+
+    /**
+     * Constructs a SalePageDto with its items and the cursor for the next page.
+     *
+     * @param items the sales on this page
+     * @param nextCursor the cursor for the next page, or null if there is none
+     */
+    public SalePageDto(List<GetSaleDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the sales on this page.
+     *
+     * @return the sales
+     */
+    public List<GetSaleDto> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor for the next page.
+     *
+     * @return the next cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
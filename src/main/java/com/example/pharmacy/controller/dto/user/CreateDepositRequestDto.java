@@ -1,6 +1,8 @@
 package com.example.pharmacy.controller.dto.user;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Data Transfer Object for processing a deposit request using simulated card data.
@@ -90,4 +92,20 @@ public class CreateDepositRequestDto {
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
+
+    /**
+     * Returns the fields that identify this request for idempotency checks.
+     * The fingerprint is stored, so it leaves out the CVC and keeps only the last four digits of the card number.
+     *
+     * @return the amount, the expiry date and the last four card digits
+     */
+    public Map<String, Object> fingerprint() {
+        Map<String, Object> fingerprint = new LinkedHashMap<>();
+        fingerprint.put("amount", amount);
+        fingerprint.put("expiryDate", expiryDate);
+        fingerprint.put("cardLast4", cardNumber == null || cardNumber.length() < 4
+                ? null
+                : cardNumber.substring(cardNumber.length() - 4));
+        return fingerprint;
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.pharmacy.controller.filters;
 
-import com.example.pharmacy.service.JwtService;
+import com.example.pharmacy.service.cache.VerifiedTokenCache;
+import com.example.pharmacy.service.valueObjects.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,17 +25,17 @@ import java.util.Collections;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    /** Service for JWT utility methods such as parsing and validation. */
-    private final JwtService jwtService;
+    /** Cache of verified tokens, backed by the JWT service on a miss. */
+    private final VerifiedTokenCache tokenCache;
 
     /**
-     * Constructs the filter with an injected JwtService.
+     * Constructs the filter with an injected token cache.
      *
-     * @param jwtService the JWT service
+     * @param tokenCache the verified token cache
      */
     @Autowired
-    public JwtAuthFilter(JwtService jwtService) {
-        this.jwtService = jwtService;
+    public JwtAuthFilter(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
     }
 
     /**
@@ -64,16 +65,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
 
             token = authHeader.substring(7);
-            String username = jwtService.getUsername(token);
-            String role = jwtService.getUserRole(token);
+            // Served from the cache after the first request; a bad token throws
+            VerifiedToken verified = tokenCache.verify(token);
+            String username = verified.getUsername();
+            String role = verified.getRole();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.verifyToken(token)) {
-                    var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
-                    var authToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+                var authToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
             System.err.println("JWT authentication failed: " + e.getMessage());
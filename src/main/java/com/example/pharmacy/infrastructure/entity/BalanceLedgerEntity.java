@@ -0,0 +1,137 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Entity representing one immutable change to a user's balance.
+ * Entries are only ever inserted; the balance is the user's snapshot plus the entries after it.
+ */
+@Entity
+@Table(
+        name = "balance_ledger",
+        indexes = @Index(name = "idx_balance_ledger_user_id", columnList = "user_id, id")
+)
+public class BalanceLedgerEntity {
+
+    /** Entry type for money added by a deposit. */
+    public static final String TYPE_DEPOSIT = "DEPOSIT";
+
+    /** Entry type for money spent on a sale. */
+    public static final String TYPE_PURCHASE = "PURCHASE";
+
+    /** Unique identifier for the entry; increases with insertion order. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** ID of the user whose balance changed. */
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    /** Signed amount: positive for deposits, negative for purchases. */
+    @Column(nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    /** Type of the change, one of the TYPE_ constants. */
+    @Column(nullable = false, updatable = false)
+    private String type;
+
+    /** Reference to the source of the change, e.g. "sale:42" or "deposit:&lt;uuid&gt;". */
+    @Column(nullable = false, updatable = false)
+    private String reference;
+
+    /** Time the entry was recorded. */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Timestamp createdAt;
+
+    /**
+     * Gets the entry ID.
+     * @return the entry ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the ID of the user whose balance changed.
+     * @return the user ID
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the user whose balance changed.
+     * @param userId the user ID
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the signed amount.
+     * @return the amount
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the signed amount.
+     * @param amount the amount
+     */
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Gets the type of the change.
+     * @return the type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Sets the type of the change.
+     * @param type the type
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets the reference to the source of the change.
+     * @return the reference
+     */
+    public String getReference() {
+        return reference;
+    }
+
+    /**
+     * Sets the reference to the source of the change.
+     * @param reference the reference
+     */
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    /**
+     * Gets the time the entry was recorded.
+     * @return the creation time
+     */
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time the entry was recorded.
+     * @param createdAt the creation time
+     */
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Entity representing the compacted balance of a user up to a given ledger entry.
+ * The current balance is this balance plus the ledger entries with a greater ID.
+ */
+@Entity
+@Table(name = "balance_snapshots")
+public class BalanceSnapshotEntity {
+
+    /** ID of the user the snapshot belongs to. */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /** Balance including all ledger entries up to {@link #lastEntryId}. */
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    /** ID of the last ledger entry folded into the balance; 0 if none. */
+    @Column(name = "last_entry_id", nullable = false)
+    private long lastEntryId;
+
+    /** Time the snapshot was last compacted. */
+    @Column(name = "updated_at", nullable = false)
+    private Timestamp updatedAt;
+
+    /**
+     * Gets the user ID.
+     * @return the user ID
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the user ID.
+     * @param userId the user ID
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the compacted balance.
+     * @return the balance
+     */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /**
+     * Sets the compacted balance.
+     * @param balance the balance
+     */
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Gets the ID of the last ledger entry folded into the balance.
+     * @return the last entry ID
+     */
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    /**
+     * Sets the ID of the last ledger entry folded into the balance.
+     * @param lastEntryId the last entry ID
+     */
+    public void setLastEntryId(long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+    }
+
+    /**
+     * Gets the time the snapshot was last compacted.
+     * @return the update time
+     */
+    public Timestamp getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the time the snapshot was last compacted.
+     * @param updatedAt the update time
+     */
+    public void setUpdatedAt(Timestamp updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
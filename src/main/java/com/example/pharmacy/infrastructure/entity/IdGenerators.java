@@ -0,0 +1,33 @@
+package com.example.pharmacy.infrastructure.entity;
+
+/**
+ * Names shared by the table-backed id generators.
+ * Each entity using one owns a row in {@link #TABLE}; Hibernate reserves {@link #ALLOCATION_SIZE} ids per
+ * round trip with the pooled optimizer, so inserts can be sent to the database in JDBC batches.
+ */
+public final class IdGenerators {
+
+    /** Schema of the generator table. */
+    public static final String SCHEMA = "drugstore_db";
+
+    /** Table holding the next value of every generator. */
+    public static final String TABLE = "id_generators";
+
+    /** Column holding the generator name. */
+    public static final String NAME_COLUMN = "sequence_name";
+
+    /** Column holding the next value to hand out. */
+    public static final String VALUE_COLUMN = "next_val";
+
+    /** Number of ids reserved per round trip; kept at or above {@code hibernate.jdbc.batch_size}. */
+    public static final int ALLOCATION_SIZE = 100;
+
+    /** Generator row of {@link SalesEntity}. */
+    public static final String SALES = "sales";
+
+    /** Generator row of {@link SaleOutboxEntity}. */
+    public static final String SALE_OUTBOX = "sale_outbox";
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.sql.Timestamp;
+
+/**
+ * Entity recording the outcome of a request made with an {@code Idempotency-Key} header.
+ * The row is inserted in the same transaction as the request's effects, so a key is either
+ * stored together with its outcome or not at all.
+ */
+@Entity
+@Table(
+        name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+)
+public class IdempotencyKeyEntity implements Persistable<String> {
+
+    /** SHA-256 of the user and the client-supplied key, hex encoded. */
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    /** SHA-256 of the operation and the request body, used to reject a key reused for another request. */
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    /** Response body of the first execution as JSON, or null if the operation returns nothing. */
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    /** Time the key was first used. */
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt;
+
+    /** Time after which the key is purged and may execute again. */
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+
+    /** Whether the entity has not been stored yet; lets save() insert instead of merging by ID. */
+    @Transient
+    private boolean fresh;
+
+    /** Default constructor. */
+    public IdempotencyKeyEntity() {}
+
+    /**
+     * Creates a new key record that has not been stored yet.
+     *
+     * @param id          the hashed key
+     * @param requestHash the hashed request
+     * @param createdAt   the time of first use
+     * @param expiresAt   the expiry time
+     */
+    public IdempotencyKeyEntity(String id, String requestHash, Timestamp createdAt, Timestamp expiresAt) {
+        this.id = id;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.fresh = true;
+    }
+
+    /**
+     * Gets the hashed key.
+     * @return the ID
+     */
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Whether the entity still has to be inserted.
+     * @return true before the first save
+     */
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markStored() {
+        this.fresh = false;
+    }
+
+    /**
+     * Gets the hashed request.
+     * @return the request hash
+     */
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    /**
+     * Gets the stored response body.
+     * @return the JSON response body, or null
+     */
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * Sets the stored response body.
+     * @param responseBody the JSON response body, or null
+     */
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * Gets the time of first use.
+     * @return the creation time
+     */
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the expiry time.
+     * @return the expiry time
+     */
+    public Timestamp getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.sql.Timestamp;
+
+/**
+ * Entity recording the deletion of a medication, so catalog mirrors can drop it on their next delta sync.
+ */
+@Entity
+@Table(
+        name = "medication_tombstones",
+        schema = "drugstore_db",
+        indexes = @Index(name = "idx_medication_tombstones_change_version", columnList = "change_version")
+)
+public class MedicationTombstoneEntity {
+
+    /** ID of the deleted medication. */
+    @Id
+    @Column(name = "medication_id")
+    private int medicationId;
+
+    /** Catalog change version of the deletion. */
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    /** Time of the deletion. */
+    @Column(name = "deleted_at", nullable = false)
+    private Timestamp deletedAt;
+
+    /** Default constructor. */
+    public MedicationTombstoneEntity() {}
+
+    /**
+     * Creates a tombstone.
+     *
+     * @param medicationId  the ID of the deleted medication
+     * @param changeVersion the change version of the deletion
+     * @param deletedAt     the time of the deletion
+     */
+    public MedicationTombstoneEntity(int medicationId, long changeVersion, Timestamp deletedAt) {
+        this.medicationId = medicationId;
+        this.changeVersion = changeVersion;
+        this.deletedAt = deletedAt;
+    }
+
+    /**
+     * Gets the ID of the deleted medication.
+     * @return the medication ID
+     */
+    public int getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Gets the change version of the deletion.
+     * @return the change version
+     */
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    /**
+     * Gets the time of the deletion.
+     * @return the deletion time
+     */
+    public Timestamp getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -11,7 +11,18 @@ import java.util.Objects;
  * Entity representing a medication in the pharmacy system.
  */
 @Entity
-@Table(name = "medications", schema = "drugstore_db")
+@Table(
+        name = "medications",
+        schema = "drugstore_db",
+        indexes = {
+                @Index(name = "idx_medications_name", columnList = "name, id"),
+                @Index(name = "idx_medications_manufacturer_name", columnList = "manufacturer, name, id"),
+                @Index(name = "idx_medications_price", columnList = "price, id"),
+                @Index(name = "idx_medications_expiration", columnList = "expiration_date, id"),
+                @Index(name = "idx_medications_stock", columnList = "stock_quantity, id"),
+                @Index(name = "idx_medications_change_version", columnList = "change_version")
+        }
+)
 public class MedicationsEntity {
 
     /** Unique identifier for the medication (primary key). */
@@ -47,6 +58,10 @@ public class MedicationsEntity {
     @Column(name = "expiration_date")
     private Date expirationDate;
 
+    /** Catalog change version of the last write to this medication; 0 for rows never changed since tracking began. */
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
     /**
      * Gets the medication ID.
      *
@@ -154,4 +169,22 @@ public class MedicationsEntity {
     public void setExpirationDate(Date expirationDate) {
         this.expirationDate = expirationDate;
     }
+
+    /**
+     * Gets the catalog change version of the last write.
+     *
+     * @return the change version
+     */
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    /**
+     * Sets the catalog change version of the last write.
+     *
+     * @param changeVersion the change version
+     */
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
@@ -0,0 +1,141 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Entity representing a sale event waiting to be relayed to downstream consumers.
+ * Rows are written in the same transaction as the sale and deleted once every sink accepted them.
+ */
+@Entity
+@Table(name = "sale_outbox", schema = "drugstore_db")
+public class SaleOutboxEntity {
+
+    /** Unique identifier of the event; consumers can use it to drop duplicates. */
+    @TableGenerator(
+            name = IdGenerators.SALE_OUTBOX,
+            schema = IdGenerators.SCHEMA,
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.SALE_OUTBOX,
+            allocationSize = IdGenerators.ALLOCATION_SIZE
+    )
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.SALE_OUTBOX)
+    @Id
+    @Column(name = "id")
+    private long id;
+
+    /** ID of the sale the event describes. */
+    @Column(name = "sale_id", nullable = false)
+    private int saleId;
+
+    /** ID of the customer who bought. */
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    /** ID of the medication sold. */
+    @Column(name = "medication_id")
+    private Integer medicationId;
+
+    /** Number of units sold. */
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    /** Total price of the sale. */
+    @Column(name = "total_price")
+    private BigDecimal totalPrice;
+
+    /** Time of the sale. */
+    @Column(name = "sale_date")
+    private Timestamp saleDate;
+
+    /** Time the event was written; the relay lag is measured from here. */
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt;
+
+    /** Default constructor. */
+    public SaleOutboxEntity() {}
+
+    /**
+     * Creates an outbox event for a stored sale.
+     *
+     * @param sale      the stored sale
+     * @param createdAt the time the event is written
+     */
+    public SaleOutboxEntity(SalesEntity sale, Timestamp createdAt) {
+        this.saleId = sale.getId();
+        this.customerId = sale.getCustomerId();
+        this.medicationId = sale.getMedicationId();
+        this.quantity = sale.getQuantity();
+        this.totalPrice = sale.getTotalPrice();
+        this.saleDate = sale.getSaleDate();
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return the event ID
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the sale ID.
+     * @return the sale ID
+     */
+    public int getSaleId() {
+        return saleId;
+    }
+
+    /**
+     * Gets the customer ID.
+     * @return the customer ID
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the medication ID.
+     * @return the medication ID
+     */
+    public Integer getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Gets the quantity sold.
+     * @return the quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Gets the total price.
+     * @return the total price
+     */
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Gets the sale date.
+     * @return the sale date
+     */
+    public Timestamp getSaleDate() {
+        return saleDate;
+    }
+
+    /**
+     * Gets the time the event was written.
+     * @return the creation time
+     */
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Entity representing a sale moved out of the {@code sales} table because it is older than the archive horizon.
+ * Rows keep the ID and columns they had in {@code sales}, so an archived sale reads the same as a live one.
+ */
+@Entity
+@Table(
+        name = "sales_archive",
+        schema = "drugstore_db",
+        indexes = {
+                @Index(name = "idx_sales_archive_customer_date_id", columnList = "customer_id, sale_date, id"),
+                @Index(name = "idx_sales_archive_date", columnList = "sale_date")
+        }
+)
+public class SalesArchiveEntity {
+
+    /** ID the sale had in the sales table. */
+    @Id
+    @Column(name = "id")
+    private int id;
+
+    /** ID of the customer who made the purchase. */
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    /** ID of the medication that was sold. */
+    @Column(name = "medication_id")
+    private Integer medicationId;
+
+    /** Quantity of medication sold. */
+    @Column(name = "quantity")
+    private int quantity;
+
+    /** Total price of the sale. */
+    @Column(name = "total_price")
+    private BigDecimal totalPrice;
+
+    /** Timestamp of when the sale occurred. */
+    @Column(name = "sale_date")
+    private Timestamp saleDate;
+
+    /** Timestamp of when the sale was moved to the archive. */
+    @Column(name = "archived_at")
+    private Timestamp archivedAt;
+
+    /** Default constructor. */
+    public SalesArchiveEntity() {}
+
+    /**
+     * Gets the sale ID.
+     * @return the sale ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the customer ID.
+     * @return the customer ID
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the medication ID.
+     * @return the medication ID
+     */
+    public Integer getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Gets the quantity sold.
+     * @return the quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Gets the total price.
+     * @return the total price
+     */
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Gets the sale date.
+     * @return the sale date
+     */
+    public Timestamp getSaleDate() {
+        return saleDate;
+    }
+
+    /**
+     * Gets the time the sale was archived.
+     * @return the archive time
+     */
+    public Timestamp getArchivedAt() {
+        return archivedAt;
+    }
+
+    /**
+     * Copies the sale into a detached sales entity, for code that works on live sales.
+     *
+     * @return a sales entity with the same ID and columns
+     */
+    public SalesEntity toSalesEntity() {
+        var sale = new SalesEntity();
+        sale.setId(id);
+        sale.setCustomerId(customerId);
+        sale.setMedicationId(medicationId);
+        sale.setQuantity(quantity);
+        sale.setTotalPrice(totalPrice);
+        sale.setSaleDate(saleDate);
+        return sale;
+    }
+}
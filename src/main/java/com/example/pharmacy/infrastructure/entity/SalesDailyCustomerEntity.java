@@ -0,0 +1,40 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity marking that a customer bought a medication on a day, with the number of such purchases.
+ * The rollup's distinct customer count goes up when a marker is created and down when its last purchase
+ * is removed; the marker's primary key makes both decisions atomic under concurrent sales.
+ */
+@Entity
+@Table(name = "sales_daily_customers", schema = "drugstore_db")
+public class SalesDailyCustomerEntity {
+
+    /** Day, medication and customer of the marker. */
+    @EmbeddedId
+    private SalesDailyCustomerId id;
+
+    /** Number of sales of the medication to the customer that day. */
+    @Column(name = "purchases", nullable = false)
+    private int purchases;
+
+    /** Default constructor. */
+    public SalesDailyCustomerEntity() {}
+
+    /**
+     * Gets the day, medication and customer of the marker.
+     * @return the marker key
+     */
+    public SalesDailyCustomerId getId() {
+        return id;
+    }
+
+    /**
+     * Gets the number of purchases.
+     * @return the purchases
+     */
+    public int getPurchases() {
+        return purchases;
+    }
+}
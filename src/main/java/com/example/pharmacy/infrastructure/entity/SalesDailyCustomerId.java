@@ -0,0 +1,80 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.sql.Date;
+import java.util.Objects;
+
+/**
+ * Key of a daily customer marker: one calendar day, one medication and one customer.
+ */
+@Embeddable
+public class SalesDailyCustomerId implements Serializable {
+
+    /** Calendar day of the purchases. */
+    @Column(name = "sale_day", nullable = false)
+    private Date day;
+
+    /** ID of the medication bought. */
+    @Column(name = "medication_id", nullable = false)
+    private int medicationId;
+
+    /** ID of the customer who bought it. */
+    @Column(name = "customer_id", nullable = false)
+    private int customerId;
+
+    /** Default constructor. */
+    public SalesDailyCustomerId() {}
+
+    /**
+     * Creates a marker key.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     * @param customerId   the customer ID
+     */
+    public SalesDailyCustomerId(Date day, int medicationId, int customerId) {
+        this.day = day;
+        this.medicationId = medicationId;
+        this.customerId = customerId;
+    }
+
+    /**
+     * Gets the calendar day.
+     * @return the day
+     */
+    public Date getDay() {
+        return day;
+    }
+
+    /**
+     * Gets the medication ID.
+     * @return the medication ID
+     */
+    public int getMedicationId() {
+        return medicationId;
+    }
+
+    /**
+     * Gets the customer ID.
+     * @return the customer ID
+     */
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SalesDailyCustomerId that = (SalesDailyCustomerId) o;
+        return medicationId == that.medicationId && customerId == that.customerId && Objects.equals(day, that.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, medicationId, customerId);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity holding the sales totals of one medication on one day.
+ * Rows are updated in the same transaction as the sales they summarize, so revenue reports
+ * read a row per day and medication instead of every sale.
+ */
+@Entity
+@Table(
+        name = "sales_daily_rollup",
+        schema = "drugstore_db",
+        // Hibernate puts medication_id first in the primary key; reports scan by day
+        indexes = @Index(name = "idx_sales_daily_rollup_day_medication", columnList = "sale_day, medication_id")
+)
+public class SalesDailyRollupEntity {
+
+    /** Day and medication the totals belong to. */
+    @EmbeddedId
+    private SalesDailyRollupId id;
+
+    /** Number of units sold. */
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    /** Sum of the sale totals. */
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    /** Number of distinct customers who bought the medication that day. */
+    @Column(name = "customers", nullable = false)
+    private int customers;
+
+    /** Default constructor. */
+    public SalesDailyRollupEntity() {}
+
+    /**
+     * Gets the day and medication of the row.
+     * @return the rollup key
+     */
+    public SalesDailyRollupId getId() {
+        return id;
+    }
+
+    /**
+     * Gets the number of units sold.
+     * @return the units
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Gets the sum of the sale totals.
+     * @return the revenue
+     */
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * Gets the number of distinct customers.
+     * @return the customers
+     */
+    public int getCustomers() {
+        return customers;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.sql.Date;
+import java.util.Objects;
+
+/**
+ * Key of a daily sales rollup row: one calendar day and one medication.
+ */
+@Embeddable
+public class SalesDailyRollupId implements Serializable {
+
+    /** Calendar day of the sales. */
+    @Column(name = "sale_day", nullable = false)
+    private Date day;
+
+    /** ID of the medication sold. */
+    @Column(name = "medication_id", nullable = false)
+    private int medicationId;
+
+    /** Default constructor. */
+    public SalesDailyRollupId() {}
+
+    /**
+     * Creates a rollup key.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     */
+    public SalesDailyRollupId(Date day, int medicationId) {
+        this.day = day;
+        this.medicationId = medicationId;
+    }
+
+    /**
+     * Gets the calendar day.
+     * @return the day
+     */
+    public Date getDay() {
+        return day;
+    }
+
+    /**
+     * Gets the medication ID.
+     * @return the medication ID
+     */
+    public int getMedicationId() {
+        return medicationId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SalesDailyRollupId that = (SalesDailyRollupId) o;
+        return medicationId == that.medicationId && Objects.equals(day, that.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, medicationId);
+    }
+}
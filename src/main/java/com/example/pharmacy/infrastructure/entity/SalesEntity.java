@@ -10,11 +10,28 @@ import java.util.Objects;
  * Entity representing a sale transaction in the pharmacy system.
  */
 @Entity
-@Table(name = "sales", schema = "drugstore_db", catalog = "")
+@Table(
+        name = "sales",
+        schema = "drugstore_db",
+        catalog = "",
+        indexes = {
+                @Index(name = "idx_sales_customer_date_id", columnList = "customer_id, sale_date, id"),
+                @Index(name = "idx_sales_date_medication_quantity", columnList = "sale_date, medication_id, quantity")
+        }
+)
 public class SalesEntity {
 
-    /** Unique identifier for the sale record. */
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /** Unique identifier for the sale record, reserved in blocks so sale inserts can be batched. */
+    @TableGenerator(
+            name = IdGenerators.SALES,
+            schema = IdGenerators.SCHEMA,
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.SALES,
+            allocationSize = IdGenerators.ALLOCATION_SIZE
+    )
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.SALES)
     @Id
     @Column(name = "id")
     private int id;
@@ -31,7 +31,11 @@ public class UserEntity {
     @Column(nullable = false)
     private String role = "CUSTOMER"; // default role
 
-    /** Current account balance of the user. Defaults to zero. */
+    /**
+     * Balance the user had before the balance ledger was introduced. Defaults to zero.
+     * No longer updated; it seeds the user's first balance snapshot.
+     * Use BalanceLedgerService for the current balance.
+     */
     @Column(nullable = false)
     private BigDecimal balance = BigDecimal.ZERO;
 
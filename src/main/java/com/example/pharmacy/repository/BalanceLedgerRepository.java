@@ -0,0 +1,95 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.BalanceLedgerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for accessing the append-only balance ledger.
+ * Provides sums over the entries that are not yet folded into a balance snapshot.
+ */
+@Repository
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntity, Long> {
+
+    /**
+     * Sum of a user's ledger entries within an ID range.
+     */
+    interface UserTotal {
+        Long getUserId();
+        BigDecimal getTotal();
+    }
+
+    /**
+     * Last ledger entry of a user that is ready to be folded into the snapshot.
+     */
+    interface CompactionBoundary {
+        Long getUserId();
+        Long getBoundaryEntryId();
+    }
+
+    /**
+     * Sums a user's ledger entries with an ID greater than the given one.
+     *
+     * @param userId  the ID of the user
+     * @param afterId the last entry ID already included in the snapshot
+     * @return the sum of the newer entries, or zero if there are none
+     */
+    @Query("""
+            select coalesce(sum(l.amount), 0)
+            from BalanceLedgerEntity l
+            where l.userId = :userId and l.id > :afterId
+            """)
+    BigDecimal sumAfter(@Param("userId") Long userId, @Param("afterId") long afterId);
+
+    /**
+     * Sums a user's ledger entries in the ID range {@code (afterId, upToId]}.
+     *
+     * @param userId  the ID of the user
+     * @param afterId the last entry ID already included in the snapshot
+     * @param upToId  the last entry ID to include
+     * @return the sum of the entries in the range, or zero if there are none
+     */
+    @Query("""
+            select coalesce(sum(l.amount), 0)
+            from BalanceLedgerEntity l
+            where l.userId = :userId and l.id > :afterId and l.id <= :upToId
+            """)
+    BigDecimal sumBetween(@Param("userId") Long userId, @Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    /**
+     * Sums, per user, the ledger entries that are newer than each user's snapshot.
+     * Users without newer entries are not returned.
+     *
+     * @param userIds the IDs of the users
+     * @return the unsnapshotted totals per user
+     */
+    @Query("""
+            select l.userId as userId, sum(l.amount) as total
+            from BalanceLedgerEntity l, BalanceSnapshotEntity s
+            where s.userId = l.userId and l.userId in :userIds and l.id > s.lastEntryId
+            group by l.userId
+            """)
+    List<UserTotal> sumAfterSnapshots(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Finds, per user, the newest ledger entry after the snapshot that was created before the cutoff.
+     * Entries younger than the cutoff are left in the tail for a later compaction.
+     *
+     * @param cutoff only entries created before this time are considered
+     * @return the compaction boundary of every user with entries to fold
+     */
+    @Query("""
+            select l.userId as userId, max(l.id) as boundaryEntryId
+            from BalanceLedgerEntity l, BalanceSnapshotEntity s
+            where s.userId = l.userId and l.id > s.lastEntryId and l.createdAt < :cutoff
+            group by l.userId
+            """)
+    List<CompactionBoundary> findCompactionBoundaries(@Param("cutoff") Timestamp cutoff);
+}
@@ -0,0 +1,63 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.BalanceSnapshotEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * Repository interface for accessing compacted balance snapshots.
+ */
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshotEntity, Long> {
+
+    /**
+     * Loads a user's snapshot and locks its row until the end of the transaction.
+     * Used to serialize the funds check of concurrent purchases by the same user.
+     *
+     * @param userId the ID of the user
+     * @return an Optional containing the locked snapshot, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from BalanceSnapshotEntity s where s.userId = :userId")
+    Optional<BalanceSnapshotEntity> findByIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Loads a user's snapshot and takes a shared lock on its row until the end of the transaction.
+     * Held by deposits while they append to the ledger, so compaction cannot fold around them.
+     *
+     * @param userId the ID of the user
+     * @return an Optional containing the locked snapshot, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select s from BalanceSnapshotEntity s where s.userId = :userId")
+    Optional<BalanceSnapshotEntity> findByIdForShare(@Param("userId") Long userId);
+
+    /**
+     * Creates a user's snapshot unless it already exists.
+     * A concurrent insert of the same snapshot waits for the first one and is then ignored,
+     * instead of failing the transaction with a duplicate key.
+     *
+     * @param userId    the ID of the user
+     * @param balance   the opening balance
+     * @param updatedAt the creation time
+     */
+    @Modifying
+    @Query(value = """
+            insert ignore into balance_snapshots (user_id, balance, last_entry_id, updated_at)
+            values (:userId, :balance, 0, :updatedAt)
+            """, nativeQuery = true)
+    void insertIfAbsent(
+            @Param("userId") Long userId,
+            @Param("balance") BigDecimal balance,
+            @Param("updatedAt") Timestamp updatedAt
+    );
+}
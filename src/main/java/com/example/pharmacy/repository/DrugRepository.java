@@ -1,13 +1,92 @@
 package com.example.pharmacy.repository;
 
 import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository interface for accessing medication (drug) data.
- * Extends JpaRepository to provide standard CRUD operations.
+ * Extends JpaRepository to provide standard CRUD operations and
+ * JpaSpecificationExecutor for filtered, paged listings built with {@link DrugSpecifications}.
  */
 @Repository
-public interface DrugRepository extends JpaRepository<MedicationsEntity, Long> {
+public interface DrugRepository extends JpaRepository<MedicationsEntity, Long>, JpaSpecificationExecutor<MedicationsEntity> {
+
+    /**
+     * Atomically decreases the stock of a medication if enough units are available.
+     * The check and the decrement happen in a single statement, so concurrent buyers cannot oversell.
+     *
+     * @param id            the ID of the medication
+     * @param quantity      the number of units to take out of stock
+     * @param changeVersion the catalog change version to stamp on the row
+     * @return the number of updated rows: 1 if the stock was decreased, 0 if there was not enough stock
+     */
+    @Modifying
+    @Query("""
+            update MedicationsEntity m
+            set m.stockQuantity = m.stockQuantity - :quantity, m.changeVersion = :changeVersion
+            where m.id = :id and m.stockQuantity >= :quantity
+            """)
+    int decrementStock(@Param("id") int id, @Param("quantity") int quantity, @Param("changeVersion") long changeVersion);
+
+    /**
+     * Loads the given medications and locks their rows until the end of the transaction.
+     * Rows are returned and locked in ID order, so concurrent checkouts cannot deadlock each other.
+     *
+     * @param ids the IDs of the medications to lock
+     * @return the locked medications, ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from MedicationsEntity m where m.id in :ids order by m.id")
+    List<MedicationsEntity> findAllByIdForUpdate(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Loads the given medications without locking them.
+     *
+     * @param ids the IDs of the medications
+     * @return the medications that exist
+     */
+    List<MedicationsEntity> findByIdIn(Collection<Integer> ids);
+
+    /**
+     * Finds the medications changed within a change version range, oldest change first.
+     *
+     * @param since    exclusive lower bound of the change version
+     * @param upTo     inclusive upper bound of the change version
+     * @param pageable limits the number of returned rows; its offset should be zero
+     * @return the changed medications ordered by change version
+     */
+    @Query("""
+            select m from MedicationsEntity m
+            where m.changeVersion > :since and m.changeVersion <= :upTo
+            order by m.changeVersion
+            """)
+    List<MedicationsEntity> findChanges(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
+
+    /**
+     * Returns the highest change version of any medication.
+     *
+     * @return the highest change version, or 0 if none was changed
+     */
+    @Query("select coalesce(max(m.changeVersion), 0) from MedicationsEntity m")
+    long findMaxChangeVersion();
+
+    /**
+     * Reads the current stock of a medication straight from the database, bypassing the persistence context.
+     *
+     * @param id the ID of the medication
+     * @return the stock quantity
+     */
+    @Query("select m.stockQuantity from MedicationsEntity m where m.id = :id")
+    int findStockQuantity(@Param("id") int id);
 }
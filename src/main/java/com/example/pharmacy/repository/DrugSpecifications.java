@@ -0,0 +1,49 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import com.example.pharmacy.service.inputs.DrugFilter;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications for filtering medications with {@link DrugRepository}.
+ * Each criterion maps to a column covered by an index on {@link MedicationsEntity}.
+ */
+public final class DrugSpecifications {
+
+    private DrugSpecifications() {
+    }
+
+    /**
+     * Builds a specification matching all criteria of the filter that are set.
+     *
+     * @param filter the filter criteria
+     * @return the combined specification
+     */
+    public static Specification<MedicationsEntity> matching(DrugFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getManufacturer() != null && !filter.getManufacturer().isBlank()) {
+                predicates.add(cb.equal(root.get("manufacturer"), filter.getManufacturer()));
+            }
+            if (filter.isInStockOnly()) {
+                predicates.add(cb.greaterThan(root.get("stockQuantity"), 0));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            if (filter.getExpiringBefore() != null) {
+                predicates.add(cb.lessThan(root.get("expirationDate"), filter.getExpiringBefore()));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
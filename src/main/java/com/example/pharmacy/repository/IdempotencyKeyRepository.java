@@ -0,0 +1,27 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+
+/**
+ * Repository interface for accessing stored idempotency keys.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    /**
+     * Deletes the keys that expired before the given time.
+     *
+     * @param now the current time
+     * @return the number of deleted keys
+     */
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") Timestamp now);
+}
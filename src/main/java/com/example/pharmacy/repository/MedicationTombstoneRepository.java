@@ -0,0 +1,40 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.MedicationTombstoneEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for accessing medication tombstones.
+ */
+@Repository
+public interface MedicationTombstoneRepository extends JpaRepository<MedicationTombstoneEntity, Integer> {
+
+    /**
+     * Finds the deletions within a change version range, oldest first.
+     *
+     * @param since    exclusive lower bound of the change version
+     * @param upTo     inclusive upper bound of the change version
+     * @param pageable limits the number of returned rows; its offset should be zero
+     * @return the tombstones ordered by change version
+     */
+    @Query("""
+            select t from MedicationTombstoneEntity t
+            where t.changeVersion > :since and t.changeVersion <= :upTo
+            order by t.changeVersion
+            """)
+    List<MedicationTombstoneEntity> findChanges(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
+
+    /**
+     * Returns the highest change version of any deletion.
+     *
+     * @return the highest change version, or 0 if nothing was deleted
+     */
+    @Query("select coalesce(max(t.changeVersion), 0) from MedicationTombstoneEntity t")
+    long findMaxChangeVersion();
+}
@@ -0,0 +1,150 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import com.example.pharmacy.infrastructure.entity.SalesArchiveEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for archived sales.
+ * Mirrors the read queries of {@link SaleRepository}, so callers can add archived rows to live results.
+ */
+@Repository
+public interface SaleArchiveRepository extends JpaRepository<SalesArchiveEntity, Integer>, SaleArchiveStreams {
+
+    /**
+     * Copies sales from the sales table into the archive.
+     *
+     * @param ids        the IDs of the sales to copy
+     * @param archivedAt the archive time recorded on the copies
+     * @return the number of copied rows
+     */
+    @Modifying
+    @Query(value = """
+            insert into drugstore_db.sales_archive (id, customer_id, medication_id, quantity, total_price, sale_date, archived_at)
+            select s.id, s.customer_id, s.medication_id, s.quantity, s.total_price, s.sale_date, :archivedAt
+            from drugstore_db.sales s
+            where s.id in (:ids)
+            """, nativeQuery = true)
+    int copyFromSales(@Param("ids") Collection<Integer> ids, @Param("archivedAt") Timestamp archivedAt);
+
+    /**
+     * Returns the newest sale date in the archive.
+     *
+     * @return the newest sale date, or null if the archive is empty
+     */
+    @Query("select max(a.saleDate) from SalesArchiveEntity a")
+    Timestamp findMaxSaleDate();
+
+    /**
+     * Returns the highest archived sale ID.
+     *
+     * @return the highest ID, or null if the archive is empty
+     */
+    @Query("select max(a.id) from SalesArchiveEntity a")
+    Integer findMaxId();
+
+    /**
+     * Retrieves all archived sales joined with their customer and medication names.
+     *
+     * @return a list of sale DTOs
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                a.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                a.quantity,
+                a.totalPrice,
+                a.saleDate)
+            from SalesArchiveEntity a
+            left join UserEntity u on u.id = a.customerId
+            left join MedicationsEntity m on m.id = a.medicationId
+            """)
+    List<GetSaleDto> findAllWithNames();
+
+    /**
+     * Retrieves a single archived sale joined with its customer and medication names.
+     *
+     * @param id the ID of the sale
+     * @return an Optional containing the sale DTO, if found
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                a.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                a.quantity,
+                a.totalPrice,
+                a.saleDate)
+            from SalesArchiveEntity a
+            left join UserEntity u on u.id = a.customerId
+            left join MedicationsEntity m on m.id = a.medicationId
+            where a.id = :id
+            """)
+    Optional<GetSaleDto> findOneWithNames(@Param("id") int id);
+
+    /**
+     * Retrieves the newest archived sales of a given customer, ordered by sale date and ID descending.
+     *
+     * @param customerId the ID of the customer
+     * @param pageable   limits the number of returned rows; its offset should be zero
+     * @return a list of sale DTOs
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                a.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                a.quantity,
+                a.totalPrice,
+                a.saleDate)
+            from SalesArchiveEntity a
+            left join UserEntity u on u.id = a.customerId
+            left join MedicationsEntity m on m.id = a.medicationId
+            where a.customerId = :customerId
+            order by a.saleDate desc, a.id desc
+            """)
+    List<GetSaleDto> findFirstPageByCustomerId(@Param("customerId") int customerId, Pageable pageable);
+
+    /**
+     * Retrieves the archived sales of a given customer that come after the given keyset position,
+     * ordered by sale date and ID descending.
+     *
+     * @param customerId the ID of the customer
+     * @param saleDate   sale date of the last row of the previous page
+     * @param id         ID of the last row of the previous page
+     * @param pageable   limits the number of returned rows; its offset should be zero
+     * @return a list of sale DTOs
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                a.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                a.quantity,
+                a.totalPrice,
+                a.saleDate)
+            from SalesArchiveEntity a
+            left join UserEntity u on u.id = a.customerId
+            left join MedicationsEntity m on m.id = a.medicationId
+            where a.customerId = :customerId
+              and (a.saleDate < :saleDate or (a.saleDate = :saleDate and a.id < :id))
+            order by a.saleDate desc, a.id desc
+            """)
+    List<GetSaleDto> findPageByCustomerIdAfter(
+            @Param("customerId") int customerId,
+            @Param("saleDate") Timestamp saleDate,
+            @Param("id") int id,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,26 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+
+import java.util.stream.Stream;
+
+/**
+ * Streaming reads of the sales archive, implemented by {@link SaleArchiveStreamsImpl};
+ * the same rules as for {@link SaleStreams} apply.
+ */
+public interface SaleArchiveStreams {
+
+    /**
+     * Streams all archived sales joined with their customer and medication names, ordered by ID.
+     *
+     * @return a forward-only stream of sale DTOs
+     */
+    Stream<GetSaleDto> streamAllWithNames();
+
+    /**
+     * Streams the analytics columns of every archived sale with a medication and a date.
+     *
+     * @return a forward-only stream of sale facts
+     */
+    Stream<SaleRepository.SaleFacts> streamFacts();
+}
@@ -0,0 +1,57 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Implementation of {@link SaleArchiveStreams}, with the fetch size of {@link SaleStreamsImpl}.
+ */
+public class SaleArchiveStreamsImpl implements SaleArchiveStreams {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sales.stream.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+
+    @Override
+    public Stream<GetSaleDto> streamAllWithNames() {
+        return entityManager.createQuery("""
+                        select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                            a.id,
+                            coalesce(u.username, 'Unknown Customer'),
+                            coalesce(m.name, 'Unknown Medication'),
+                            a.quantity,
+                            a.totalPrice,
+                            a.saleDate)
+                        from SalesArchiveEntity a
+                        left join UserEntity u on u.id = a.customerId
+                        left join MedicationsEntity m on m.id = a.medicationId
+                        order by a.id
+                        """, GetSaleDto.class)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<SaleRepository.SaleFacts> streamFacts() {
+        return entityManager.createQuery("""
+                        select a.medicationId, a.customerId, a.saleDate, a.totalPrice, a.quantity
+                        from SalesArchiveEntity a
+                        where a.medicationId is not null and a.saleDate is not null
+                        """, Tuple.class)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(SaleStreamsImpl.Facts::of);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.SaleOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for accessing the sale event outbox.
+ */
+@Repository
+public interface SaleOutboxRepository extends JpaRepository<SaleOutboxEntity, Long> {
+
+    /**
+     * Finds the oldest pending events.
+     *
+     * @param pageable limits the number of returned rows; its offset should be zero
+     * @return the pending events ordered by ID
+     */
+    @Query("select o from SaleOutboxEntity o order by o.id")
+    List<SaleOutboxEntity> findOldest(Pageable pageable);
+}
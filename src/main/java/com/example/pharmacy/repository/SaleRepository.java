@@ -1,23 +1,186 @@
 package com.example.pharmacy.repository;
 
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
 import com.example.pharmacy.infrastructure.entity.SalesEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for accessing sales data.
- * Provides methods for retrieving sales by customer ID.
+ * Provides methods for retrieving sales by customer ID and
+ * join projections that resolve customer and medication names in a single query.
  */
 @Repository
-public interface SaleRepository extends JpaRepository<SalesEntity, Long> {
+public interface SaleRepository extends JpaRepository<SalesEntity, Long>, SaleStreams {
 
     /**
-     * Finds all sales associated with a given customer ID.
+     * Units sold of a single medication.
+     */
+    interface MedicationVolume {
+        Integer getMedicationId();
+        Long getUnitsSold();
+    }
+
+    /**
+     * Units of a single sale with its time.
+     */
+    interface SaleVolume {
+        Integer getMedicationId();
+        Integer getQuantity();
+        Timestamp getSaleDate();
+    }
+
+    /**
+     * Columns of a sale loaded into the analytics store.
+     */
+    interface SaleFacts {
+        Integer getMedicationId();
+        Integer getCustomerId();
+        Timestamp getSaleDate();
+        BigDecimal getTotalPrice();
+        Integer getQuantity();
+    }
+
+    /**
+     * Retrieves all sales joined with their customer and medication names.
+     *
+     * @return a list of sale DTOs
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                s.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                s.quantity,
+                s.totalPrice,
+                s.saleDate)
+            from SalesEntity s
+            left join UserEntity u on u.id = s.customerId
+            left join MedicationsEntity m on m.id = s.medicationId
+            """)
+    List<GetSaleDto> findAllWithNames();
+
+    /**
+     * Retrieves a single sale joined with its customer and medication names.
+     *
+     * @param id the ID of the sale
+     * @return an Optional containing the sale DTO, if found
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                s.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                s.quantity,
+                s.totalPrice,
+                s.saleDate)
+            from SalesEntity s
+            left join UserEntity u on u.id = s.customerId
+            left join MedicationsEntity m on m.id = s.medicationId
+            where s.id = :id
+            """)
+    Optional<GetSaleDto> findOneWithNames(@Param("id") int id);
+
+    /**
+     * Retrieves the newest sales of a given customer, ordered by sale date and ID descending.
+     * Served by the {@code (customer_id, sale_date, id)} index.
      *
      * @param customerId the ID of the customer
-     * @return a list of sales made by the specified customer
+     * @param pageable   limits the number of returned rows; its offset should be zero
+     * @return a list of sale DTOs
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                s.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                s.quantity,
+                s.totalPrice,
+                s.saleDate)
+            from SalesEntity s
+            left join UserEntity u on u.id = s.customerId
+            left join MedicationsEntity m on m.id = s.medicationId
+            where s.customerId = :customerId
+            order by s.saleDate desc, s.id desc
+            """)
+    List<GetSaleDto> findFirstPageByCustomerId(@Param("customerId") int customerId, Pageable pageable);
+
+    /**
+     * Retrieves the sales of a given customer that come after the given keyset position,
+     * ordered by sale date and ID descending. Served by the {@code (customer_id, sale_date, id)} index,
+     * so the cost does not depend on how deep the page is.
+     *
+     * @param customerId the ID of the customer
+     * @param saleDate   sale date of the last row of the previous page
+     * @param id         ID of the last row of the previous page
+     * @param pageable   limits the number of returned rows; its offset should be zero
+     * @return a list of sale DTOs
+     */
+    @Query("""
+            select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                s.id,
+                coalesce(u.username, 'Unknown Customer'),
+                coalesce(m.name, 'Unknown Medication'),
+                s.quantity,
+                s.totalPrice,
+                s.saleDate)
+            from SalesEntity s
+            left join UserEntity u on u.id = s.customerId
+            left join MedicationsEntity m on m.id = s.medicationId
+            where s.customerId = :customerId
+              and (s.saleDate < :saleDate or (s.saleDate = :saleDate and s.id < :id))
+            order by s.saleDate desc, s.id desc
+            """)
+    List<GetSaleDto> findPageByCustomerIdAfter(
+            @Param("customerId") int customerId,
+            @Param("saleDate") Timestamp saleDate,
+            @Param("id") int id,
+            Pageable pageable
+    );
+
+    /**
+     * Sums the units sold per medication since the given time.
+     * Answered from the {@code (sale_date, medication_id, quantity)} index without touching the rows.
+     *
+     * @param since start of the window, inclusive
+     * @return units sold per medication that sold at least once in the window
+     */
+    @Query("""
+            select s.medicationId as medicationId, sum(s.quantity) as unitsSold
+            from SalesEntity s
+            where s.saleDate >= :since and s.medicationId is not null
+            group by s.medicationId
+            """)
+    List<MedicationVolume> sumQuantityByMedicationSince(@Param("since") Timestamp since);
+
+    /**
+     * Finds the oldest sales made before the given time, for moving them to the archive.
+     * Served by the {@code (sale_date, medication_id, quantity)} index.
+     *
+     * @param before   sales strictly older than this are returned
+     * @param pageable limits the number of returned IDs; its offset should be zero
+     * @return the IDs of the sales, oldest first
+     */
+    @Query("select s.id from SalesEntity s where s.saleDate < :before order by s.saleDate, s.id")
+    List<Integer> findIdsSoldBefore(@Param("before") Timestamp before, Pageable pageable);
+
+    /**
+     * Deletes sales by ID in one statement.
+     *
+     * @param ids the IDs of the sales
+     * @return the number of deleted rows
      */
-    List<SalesEntity> findByCustomerId(int customerId);
+    @Modifying
+    @Query("delete from SalesEntity s where s.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,37 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+/**
+ * Streaming reads of the sales table, implemented by {@link SaleStreamsImpl} so the fetch size can follow
+ * the database; every stream must be consumed inside a transaction and closed, and no other statement
+ * may run on the connection while it is open.
+ */
+public interface SaleStreams {
+
+    /**
+     * Streams all sales joined with their customer and medication names, ordered by ID.
+     *
+     * @return a forward-only stream of sale DTOs
+     */
+    Stream<GetSaleDto> streamAllWithNames();
+
+    /**
+     * Streams the medication, units and time of the sales since the given time, oldest first.
+     * Answered from the {@code (sale_date, medication_id, quantity)} index.
+     *
+     * @param since start of the range, inclusive
+     * @return a forward-only stream of sale volumes
+     */
+    Stream<SaleRepository.SaleVolume> streamVolumesSince(Timestamp since);
+
+    /**
+     * Streams the analytics columns of every sale with a medication and a date.
+     *
+     * @return a forward-only stream of sale facts
+     */
+    Stream<SaleRepository.SaleFacts> streamFacts();
+}
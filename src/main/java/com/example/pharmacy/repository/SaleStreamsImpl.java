@@ -0,0 +1,145 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Implementation of {@link SaleStreams}.
+ * The fetch size comes from `sales.stream.fetch-size`: {@link Integer#MIN_VALUE} makes the MySQL driver hand
+ * out rows as they arrive instead of buffering the whole result, without turning on server-side cursors
+ * and prepared statements for every other query of the application.
+ */
+public class SaleStreamsImpl implements SaleStreams {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sales.stream.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+
+    @Override
+    public Stream<GetSaleDto> streamAllWithNames() {
+        return entityManager.createQuery("""
+                        select new com.example.pharmacy.controller.dto.sale.GetSaleDto(
+                            s.id,
+                            coalesce(u.username, 'Unknown Customer'),
+                            coalesce(m.name, 'Unknown Medication'),
+                            s.quantity,
+                            s.totalPrice,
+                            s.saleDate)
+                        from SalesEntity s
+                        left join UserEntity u on u.id = s.customerId
+                        left join MedicationsEntity m on m.id = s.medicationId
+                        order by s.id
+                        """, GetSaleDto.class)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<SaleRepository.SaleVolume> streamVolumesSince(Timestamp since) {
+        return entityManager.createQuery("""
+                        select s.medicationId, s.quantity, s.saleDate
+                        from SalesEntity s
+                        where s.saleDate >= :since and s.medicationId is not null
+                        order by s.saleDate
+                        """, Tuple.class)
+                .setParameter("since", since)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(row -> new Volume(row.get(0, Integer.class), row.get(1, Integer.class), row.get(2, Timestamp.class)));
+    }
+
+    @Override
+    public Stream<SaleRepository.SaleFacts> streamFacts() {
+        return entityManager.createQuery("""
+                        select s.medicationId, s.customerId, s.saleDate, s.totalPrice, s.quantity
+                        from SalesEntity s
+                        where s.medicationId is not null and s.saleDate is not null
+                        """, Tuple.class)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(Facts::of);
+    }
+
+    /**
+     * A streamed sale volume.
+     */
+    private record Volume(Integer medicationId, Integer quantity, Timestamp saleDate) implements SaleRepository.SaleVolume {
+        @Override
+        public Integer getMedicationId() {
+            return medicationId;
+        }
+
+        @Override
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public Timestamp getSaleDate() {
+            return saleDate;
+        }
+    }
+
+    /**
+     * Streamed sale facts, also used for the archive.
+     */
+    record Facts(Integer medicationId, Integer customerId, Timestamp saleDate, BigDecimal totalPrice, Integer quantity)
+            implements SaleRepository.SaleFacts {
+
+        /**
+         * Reads the facts from a row selecting medication, customer, date, total price and quantity in that order.
+         *
+         * @param row the row
+         * @return the facts
+         */
+        static Facts of(Tuple row) {
+            return new Facts(
+                    row.get(0, Integer.class),
+                    row.get(1, Integer.class),
+                    row.get(2, Timestamp.class),
+                    row.get(3, BigDecimal.class),
+                    row.get(4, Integer.class)
+            );
+        }
+
+        @Override
+        public Integer getMedicationId() {
+            return medicationId;
+        }
+
+        @Override
+        public Integer getCustomerId() {
+            return customerId;
+        }
+
+        @Override
+        public Timestamp getSaleDate() {
+            return saleDate;
+        }
+
+        @Override
+        public BigDecimal getTotalPrice() {
+            return totalPrice;
+        }
+
+        @Override
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.SalesDailyCustomerEntity;
+import com.example.pharmacy.infrastructure.entity.SalesDailyCustomerId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+
+/**
+ * Repository interface for the markers behind the rollup's distinct customer counts.
+ * A marker is created by the first purchase of a medication by a customer on a day and removed with
+ * the last one; whether a statement created or removed it is read from its row count, so concurrent
+ * sales by the same customer never count them twice.
+ */
+@Repository
+public interface SalesDailyCustomerRepository extends JpaRepository<SalesDailyCustomerEntity, SalesDailyCustomerId> {
+
+    /**
+     * Creates the marker of a day, medication and customer unless it exists.
+     * If another open transaction is creating the same marker, this waits for it to finish.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     * @param customerId   the customer ID
+     * @param purchases    the number of purchases to start with
+     * @return 1 if the marker was created, 0 if it already existed
+     */
+    @Modifying
+    @Query(value = """
+            insert ignore into drugstore_db.sales_daily_customers (sale_day, medication_id, customer_id, purchases)
+            values (:day, :medicationId, :customerId, :purchases)
+            """, nativeQuery = true)
+    int insertIfAbsent(
+            @Param("day") Date day,
+            @Param("medicationId") int medicationId,
+            @Param("customerId") int customerId,
+            @Param("purchases") int purchases
+    );
+
+    /**
+     * Adds purchases to an existing marker.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     * @param customerId   the customer ID
+     * @param purchases    the number of purchases to add; negative to remove
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("""
+            update SalesDailyCustomerEntity c
+            set c.purchases = c.purchases + :purchases
+            where c.id.day = :day and c.id.medicationId = :medicationId and c.id.customerId = :customerId
+            """)
+    int addPurchases(
+            @Param("day") Date day,
+            @Param("medicationId") int medicationId,
+            @Param("customerId") int customerId,
+            @Param("purchases") int purchases
+    );
+
+    /**
+     * Deletes the marker of a day, medication and customer once no purchases are left on it.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     * @param customerId   the customer ID
+     * @return 1 if the marker was deleted, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            delete from SalesDailyCustomerEntity c
+            where c.id.day = :day and c.id.medicationId = :medicationId and c.id.customerId = :customerId
+              and c.purchases <= 0
+            """)
+    int deleteIfEmpty(
+            @Param("day") Date day,
+            @Param("medicationId") int medicationId,
+            @Param("customerId") int customerId
+    );
+
+    /**
+     * Rebuilds the markers from the sales and sales archive tables in one statement. The table must be empty.
+     *
+     * @return the number of created markers
+     */
+    @Modifying
+    @Query(value = """
+            insert into drugstore_db.sales_daily_customers (sale_day, medication_id, customer_id, purchases)
+            select cast(s.sale_date as date), s.medication_id, s.customer_id, count(*)
+            from (
+                select customer_id, medication_id, sale_date from drugstore_db.sales
+                union all
+                select customer_id, medication_id, sale_date from drugstore_db.sales_archive
+            ) s
+            where s.medication_id is not null and s.sale_date is not null and s.customer_id is not null
+            group by cast(s.sale_date as date), s.medication_id, s.customer_id
+            """, nativeQuery = true)
+    int rebuildFromSales();
+}
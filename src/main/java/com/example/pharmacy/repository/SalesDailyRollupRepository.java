@@ -0,0 +1,161 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.infrastructure.entity.SalesDailyRollupEntity;
+import com.example.pharmacy.infrastructure.entity.SalesDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Repository interface for the daily sales rollup.
+ * Writes are single-statement increments, so concurrent sales of the same medication
+ * on the same day never lose an update.
+ */
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollupEntity, SalesDailyRollupId> {
+
+    /**
+     * Totals of a single day.
+     */
+    interface DailyRevenue {
+        Date getDay();
+        Long getUnits();
+        BigDecimal getRevenue();
+        Long getCustomers();
+    }
+
+    /**
+     * Totals of a single medication.
+     */
+    interface MedicationRevenue {
+        Integer getMedicationId();
+        String getMedicationName();
+        Long getUnits();
+        BigDecimal getRevenue();
+        Long getCustomers();
+    }
+
+    /**
+     * Adds sales to the row of a day and medication, creating the row if it does not exist yet.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     * @param units        units to add
+     * @param revenue      revenue to add
+     * @param customers    new distinct customers to add
+     */
+    @Modifying
+    @Query(value = """
+            insert into drugstore_db.sales_daily_rollup (sale_day, medication_id, units, revenue, customers)
+            values (:day, :medicationId, :units, :revenue, :customers)
+            on duplicate key update
+                units = units + :units,
+                revenue = revenue + :revenue,
+                customers = customers + :customers
+            """, nativeQuery = true)
+    void add(
+            @Param("day") Date day,
+            @Param("medicationId") int medicationId,
+            @Param("units") long units,
+            @Param("revenue") BigDecimal revenue,
+            @Param("customers") int customers
+    );
+
+    /**
+     * Removes a sale from the row of a day and medication.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     * @param units        units to remove
+     * @param revenue      revenue to remove
+     * @param customers    distinct customers to remove
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("""
+            update SalesDailyRollupEntity r
+            set r.units = r.units - :units, r.revenue = r.revenue - :revenue, r.customers = r.customers - :customers
+            where r.id.day = :day and r.id.medicationId = :medicationId
+            """)
+    int subtract(
+            @Param("day") Date day,
+            @Param("medicationId") int medicationId,
+            @Param("units") long units,
+            @Param("revenue") BigDecimal revenue,
+            @Param("customers") int customers
+    );
+
+    /**
+     * Deletes the row of a day and medication once no units are left on it.
+     *
+     * @param day          the calendar day
+     * @param medicationId the medication ID
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("""
+            delete from SalesDailyRollupEntity r
+            where r.id.day = :day and r.id.medicationId = :medicationId and r.units <= 0
+            """)
+    int deleteIfEmpty(@Param("day") Date day, @Param("medicationId") int medicationId);
+
+    /**
+     * Rebuilds the rollup from the sales and sales archive tables in one statement. The table must be empty.
+     *
+     * @return the number of created rows
+     */
+    @Modifying
+    @Query(value = """
+            insert into drugstore_db.sales_daily_rollup (sale_day, medication_id, units, revenue, customers)
+            select cast(s.sale_date as date), s.medication_id, sum(s.quantity),
+                   coalesce(sum(s.total_price), 0), count(distinct s.customer_id)
+            from (
+                select customer_id, medication_id, quantity, total_price, sale_date from drugstore_db.sales
+                union all
+                select customer_id, medication_id, quantity, total_price, sale_date from drugstore_db.sales_archive
+            ) s
+            where s.medication_id is not null and s.sale_date is not null
+            group by cast(s.sale_date as date), s.medication_id
+            """, nativeQuery = true)
+    int rebuildFromSales();
+
+    /**
+     * Sums the rollup per day within a date range.
+     *
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     * @return totals per day that had sales, oldest first
+     */
+    @Query("""
+            select r.id.day as day, sum(r.units) as units, sum(r.revenue) as revenue, sum(r.customers) as customers
+            from SalesDailyRollupEntity r
+            where r.id.day between :from and :to
+            group by r.id.day
+            order by r.id.day
+            """)
+    List<DailyRevenue> sumByDay(@Param("from") Date from, @Param("to") Date to);
+
+    /**
+     * Sums the rollup per medication within a date range.
+     *
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     * @return totals per medication that sold in the range, highest revenue first
+     */
+    @Query("""
+            select r.id.medicationId as medicationId, coalesce(m.name, 'Unknown Medication') as medicationName,
+                   sum(r.units) as units, sum(r.revenue) as revenue, sum(r.customers) as customers
+            from SalesDailyRollupEntity r
+            left join MedicationsEntity m on m.id = r.id.medicationId
+            where r.id.day between :from and :to
+            group by r.id.medicationId, m.name
+            order by sum(r.revenue) desc, r.id.medicationId
+            """)
+    List<MedicationRevenue> sumByMedication(@Param("from") Date from, @Param("to") Date to);
+}
@@ -2,10 +2,21 @@ package com.example.pharmacy.service;
 
 import com.example.pharmacy.controller.dto.login.LoginRequestDto;
 import com.example.pharmacy.controller.dto.login.LoginResponseDto;
+import com.example.pharmacy.controller.dto.login.LoginStatsDto;
+import com.example.pharmacy.controller.dto.login.TokenCacheStatsDto;
 import com.example.pharmacy.repository.IUserRepository;
+import com.example.pharmacy.service.cache.VerifiedTokenCache;
+import com.example.pharmacy.service.errors.LoginCapacityExceededError;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Service responsible for handling user authentication.
  */
@@ -15,6 +26,20 @@ public class AuthService {
     private final IUserRepository userRepository;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final VerifiedTokenCache tokenCache;
+    private final ThreadPoolExecutor passwordHashExecutor;
+
+    /** Number of completed password checks. */
+    private final LongAdder hashCount = new LongAdder();
+
+    /** Total time spent in password checks, in nanoseconds. */
+    private final LongAdder hashNanos = new LongAdder();
+
+    /** Longest single password check, in nanoseconds. */
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    /** Number of logins rejected because the hashing queue was full. */
+    private final LongAdder rejectedLogins = new LongAdder();
 
     /**
      * Constructs the AuthService with necessary dependencies.
@@ -22,21 +47,33 @@ public class AuthService {
      * @param userRepository repository for accessing user data
      * @param jwtService service for generating JWT tokens
      * @param passwordEncoder encoder for verifying password hashes
+     * @param tokenCache cache of verified tokens used by the authentication filter
+     * @param passwordHashExecutor bounded executor that runs the password checks
      */
-    public AuthService(IUserRepository userRepository, JwtService jwtService, PasswordEncoder passwordEncoder) {
+    public AuthService(
+            IUserRepository userRepository,
+            JwtService jwtService,
+            PasswordEncoder passwordEncoder,
+            VerifiedTokenCache tokenCache,
+            ThreadPoolExecutor passwordHashExecutor
+    ) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenCache = tokenCache;
+        this.passwordHashExecutor = passwordHashExecutor;
     }
 
     /**
      * Authenticates a user and returns a JWT token if successful.
+     * The password check runs on the dedicated hashing executor, not on the calling thread.
      *
      * @param loginRequestDto DTO containing username and password
-     * @return LoginResponseDto with JWT token and user role
+     * @return future completing with a LoginResponseDto with JWT token and user role
      * @throws RuntimeException if user not found or password is incorrect
+     * @throws LoginCapacityExceededError if the hashing queue is full
      */
-    public LoginResponseDto login(LoginRequestDto loginRequestDto) {
+    public CompletableFuture<LoginResponseDto> login(LoginRequestDto loginRequestDto) {
         System.out.println("Attempting login for username: " + loginRequestDto.getUsername());
 
         var user = userRepository.findByUsername(loginRequestDto.getUsername())
@@ -44,13 +81,81 @@ public class AuthService {
 
         System.out.println("Password hash from DB: " + user.getPassword());
 
-        boolean doPasswordsMatch = passwordEncoder.matches(loginRequestDto.getPassword(), user.getPassword());
+        CompletableFuture<Boolean> passwordCheck;
+        try {
+            passwordCheck = CompletableFuture.supplyAsync(
+                    () -> timedMatches(loginRequestDto.getPassword(), user.getPassword()),
+                    passwordHashExecutor
+            );
+        } catch (RejectedExecutionException e) {
+            rejectedLogins.increment();
+            throw new LoginCapacityExceededError();
+        }
 
-        if (!doPasswordsMatch) {
-            throw new RuntimeException("Unauthorized: Incorrect password");
+        return passwordCheck.thenApply(doPasswordsMatch -> {
+            if (!doPasswordsMatch) {
+                throw new RuntimeException("Unauthorized: Incorrect password");
+            }
+
+            System.out.println("Login successful for user: " + user.getUsername());
+            return new LoginResponseDto(jwtService.createToken(user), user.getRole());
+        });
+    }
+
+    /**
+     * Checks a password against its hash and records how long the check took.
+     *
+     * @param rawPassword     the password sent by the user
+     * @param encodedPassword the stored BCrypt hash
+     * @return true if the password matches
+     */
+    private boolean timedMatches(String rawPassword, String encodedPassword) {
+        long started = System.nanoTime();
+        try {
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            hashCount.increment();
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
         }
+    }
+
+    /**
+     * Returns queue depth and hash latency statistics of the login hashing executor.
+     *
+     * @return the login statistics
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public LoginStatsDto getLoginStats() {
+        long count = hashCount.sum();
+        return new LoginStatsDto(
+                passwordHashExecutor.getPoolSize(),
+                passwordHashExecutor.getActiveCount(),
+                passwordHashExecutor.getQueue().size(),
+                passwordHashExecutor.getQueue().remainingCapacity(),
+                count,
+                rejectedLogins.sum(),
+                count == 0 ? 0 : hashNanos.sum() / (double) count / 1_000_000,
+                maxHashNanos.get() / 1_000_000.0
+        );
+    }
 
-        System.out.println("Login successful for user: " + user.getUsername());
-        return new LoginResponseDto(jwtService.createToken(user), user.getRole());
+    /**
+     * Returns hit, miss, eviction and memory statistics of the verified token cache.
+     *
+     * @return the cache statistics
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public TokenCacheStatsDto getTokenCacheStats() {
+        var stats = tokenCache.stats();
+        return new TokenCacheStatsDto(
+                tokenCache.size(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                tokenCache.estimatedMemoryBytes()
+        );
     }
 }
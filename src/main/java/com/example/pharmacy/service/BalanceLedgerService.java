@@ -0,0 +1,283 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.infrastructure.entity.BalanceLedgerEntity;
+import com.example.pharmacy.infrastructure.entity.BalanceSnapshotEntity;
+import com.example.pharmacy.infrastructure.entity.UserEntity;
+import com.example.pharmacy.repository.BalanceLedgerRepository;
+import com.example.pharmacy.repository.BalanceSnapshotRepository;
+import com.example.pharmacy.repository.IUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service that keeps user balances as an append-only ledger.
+ * Deposits and purchases only insert ledger entries; a user's balance is their snapshot plus the
+ * entries after it, and a scheduled job periodically folds older entries into the snapshots.
+ * Writers hold a lock on the user's snapshot row until they commit, shared for deposits and exclusive
+ * for purchases, so the compaction, which locks the row exclusively, never folds past an entry
+ * of a transaction that is still open.
+ */
+@Service
+public class BalanceLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceLedgerService.class);
+
+    private final BalanceLedgerRepository ledgerRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final IUserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Minimum age of a ledger entry before it is folded into a snapshot.
+     * Keeps the compaction away from the snapshots of users who are buying or depositing right now.
+     * Configurable via `balance.snapshot.compaction-delay`.
+     */
+    @Value("${balance.snapshot.compaction-delay:1m}")
+    private Duration compactionDelay;
+
+    /**
+     * Constructs the BalanceLedgerService with necessary dependencies.
+     *
+     * @param ledgerRepository   repository for ledger entries
+     * @param snapshotRepository repository for balance snapshots
+     * @param userRepository     repository for users, used to seed snapshots of existing users
+     * @param transactionManager transaction manager, for compacting each user in its own transaction
+     */
+    @Autowired
+    public BalanceLedgerService(
+            BalanceLedgerRepository ledgerRepository,
+            BalanceSnapshotRepository snapshotRepository,
+            IUserRepository userRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.ledgerRepository = ledgerRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the balance snapshot of a user, starting from the user's stored balance.
+     * Safe to call concurrently for the same user: whoever comes second keeps the existing snapshot.
+     * The snapshot is share-locked until the end of the current transaction.
+     *
+     * @param user the user to open the account for
+     * @return the user's snapshot
+     */
+    @Transactional
+    public BalanceSnapshotEntity openAccount(UserEntity user) {
+        createSnapshot(user);
+        // A locking read, so a snapshot committed by a concurrent opener is seen under repeatable read
+        return snapshotRepository.findByIdForShare(user.getId())
+                .orElseThrow(() -> new RuntimeException("Balance not found"));
+    }
+
+    /**
+     * Returns a user's current balance: the snapshot plus all newer ledger entries.
+     *
+     * @param userId the ID of the user
+     * @return the current balance
+     */
+    @Transactional
+    public BigDecimal getBalance(Long userId) {
+        var snapshot = snapshotRepository.findById(userId)
+                .orElseGet(() -> openAccount(findUser(userId)));
+        return snapshot.getBalance().add(ledgerRepository.sumAfter(userId, snapshot.getLastEntryId()));
+    }
+
+    /**
+     * Returns the current balances of several users with a constant number of queries.
+     *
+     * @param users the users
+     * @return the current balance of each user, keyed by user ID
+     */
+    @Transactional
+    public Map<Long, BigDecimal> getBalances(Collection<UserEntity> users) {
+        Map<Long, UserEntity> byId = users.stream()
+                .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (BalanceSnapshotEntity snapshot : snapshotRepository.findAllById(byId.keySet())) {
+            balances.put(snapshot.getUserId(), snapshot.getBalance());
+        }
+        for (UserEntity user : users) {
+            if (!balances.containsKey(user.getId())) {
+                balances.put(user.getId(), openAccount(user).getBalance());
+            }
+        }
+
+        for (BalanceLedgerRepository.UserTotal tail : ledgerRepository.sumAfterSnapshots(byId.keySet())) {
+            balances.merge(tail.getUserId(), tail.getTotal(), BigDecimal::add);
+        }
+        return balances;
+    }
+
+    /**
+     * Checks that a user can pay the given amount and locks the user's snapshot until the
+     * end of the current transaction, so concurrent purchases by the same user cannot overdraw.
+     *
+     * @param userId the ID of the user
+     * @param amount the amount to be paid
+     * @throws RuntimeException if the balance is lower than the amount
+     */
+    @Transactional
+    public void requireFunds(Long userId, BigDecimal amount) {
+        if (!snapshotRepository.existsById(userId)) {
+            createSnapshot(findUser(userId));
+        }
+
+        var snapshot = snapshotRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new RuntimeException("Balance not found"));
+        BigDecimal balance = snapshot.getBalance().add(ledgerRepository.sumAfter(userId, snapshot.getLastEntryId()));
+
+        if (amount.compareTo(balance) > 0) {
+            throw new RuntimeException("Insufficient funds");
+        }
+    }
+
+    /**
+     * Appends a deposit to a user's ledger.
+     * The user's snapshot is share-locked until the deposit commits, so deposits do not wait for
+     * each other, only for a purchase or a compaction of the same user.
+     *
+     * @param userId the ID of the user
+     * @param amount the deposited amount, positive
+     * @return the reference recorded for the deposit
+     */
+    @Transactional
+    public String recordDeposit(Long userId, BigDecimal amount) {
+        if (snapshotRepository.findByIdForShare(userId).isEmpty()) {
+            openAccount(findUser(userId));
+        }
+        String reference = "deposit:" + UUID.randomUUID();
+        ledgerRepository.save(newEntry(userId, amount, BalanceLedgerEntity.TYPE_DEPOSIT, reference));
+        return reference;
+    }
+
+    /**
+     * Appends one purchase entry per sale to a user's ledger.
+     * Callers must have checked the total with {@link #requireFunds(Long, BigDecimal)} in the same transaction.
+     *
+     * @param userId  the ID of the user
+     * @param charges amount paid per sale ID
+     */
+    @Transactional
+    public void recordPurchases(Long userId, Map<Integer, BigDecimal> charges) {
+        List<BalanceLedgerEntity> entries = charges.entrySet().stream()
+                .map(charge -> newEntry(
+                        userId,
+                        charge.getValue().negate(),
+                        BalanceLedgerEntity.TYPE_PURCHASE,
+                        "sale:" + charge.getKey()
+                ))
+                .toList();
+        ledgerRepository.saveAll(entries);
+    }
+
+    /**
+     * Folds ledger entries older than the compaction delay into the users' snapshots.
+     * Each user is compacted in its own transaction.
+     * Runs periodically; the interval is configurable via `balance.snapshot.compaction-interval`.
+     */
+    @Scheduled(fixedDelayString = "${balance.snapshot.compaction-interval:60000}")
+    public void compactSnapshots() {
+        var now = Instant.now();
+        var cutoff = Timestamp.from(now.minus(compactionDelay));
+
+        for (var boundary : ledgerRepository.findCompactionBoundaries(cutoff)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> compact(boundary, now));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to compact the balance of user {}", boundary.getUserId(), e);
+            }
+        }
+    }
+
+    /**
+     * Folds a user's ledger entries up to the boundary into the snapshot.
+     * IDs are assigned at insert, not at commit, so an open transaction may still hold an entry below
+     * the boundary. Such a transaction holds the snapshot lock, so taking it here waits until the entry
+     * has committed or rolled back, and the sum read afterwards includes everything up to the boundary.
+     *
+     * @param boundary the user's compaction boundary
+     * @param now      the compaction time
+     */
+    private void compact(BalanceLedgerRepository.CompactionBoundary boundary, Instant now) {
+        var snapshot = snapshotRepository.findByIdForUpdate(boundary.getUserId()).orElse(null);
+        if (snapshot == null || snapshot.getLastEntryId() >= boundary.getBoundaryEntryId()) {
+            return;
+        }
+
+        BigDecimal amount = ledgerRepository.sumBetween(
+                boundary.getUserId(),
+                snapshot.getLastEntryId(),
+                boundary.getBoundaryEntryId()
+        );
+        snapshot.setBalance(snapshot.getBalance().add(amount));
+        snapshot.setLastEntryId(boundary.getBoundaryEntryId());
+        snapshot.setUpdatedAt(Timestamp.from(now));
+    }
+
+    /**
+     * Inserts the balance snapshot of a user, starting from the user's stored balance,
+     * unless the user already has one.
+     *
+     * @param user the user to create the snapshot for
+     */
+    private void createSnapshot(UserEntity user) {
+        snapshotRepository.insertIfAbsent(
+                user.getId(),
+                user.getBalance() != null ? user.getBalance() : BigDecimal.ZERO,
+                Timestamp.from(Instant.now())
+        );
+    }
+
+    /**
+     * Builds a new ledger entry stamped with the current time.
+     *
+     * @param userId    the ID of the user
+     * @param amount    the signed amount
+     * @param type      the entry type
+     * @param reference the source reference
+     * @return the unsaved entry
+     */
+    private BalanceLedgerEntity newEntry(Long userId, BigDecimal amount, String type, String reference) {
+        var entry = new BalanceLedgerEntity();
+        entry.setUserId(userId);
+        entry.setAmount(amount);
+        entry.setType(type);
+        entry.setReference(reference);
+        entry.setCreatedAt(Timestamp.from(Instant.now()));
+        return entry;
+    }
+
+    /**
+     * Loads a user by ID.
+     *
+     * @param userId the ID of the user
+     * @return the user entity
+     */
+    private UserEntity findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
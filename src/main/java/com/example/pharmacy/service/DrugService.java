@@ -1,19 +1,53 @@
 package com.example.pharmacy.service;
 
+import com.example.pharmacy.controller.dto.CacheStatsDto;
 import com.example.pharmacy.controller.dto.drug.CreateDrugDto;
 import com.example.pharmacy.controller.dto.drug.CreateDrugResponseDto;
+import com.example.pharmacy.controller.dto.drug.DrugChangesDto;
+import com.example.pharmacy.controller.dto.drug.DrugPageDto;
+import com.example.pharmacy.controller.dto.drug.DrugSearchResultDto;
+import com.example.pharmacy.controller.dto.drug.DrugStockChangeDto;
 import com.example.pharmacy.controller.dto.drug.GetDrugDto;
+import com.example.pharmacy.infrastructure.entity.MedicationTombstoneEntity;
 import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
 import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.DrugSpecifications;
+import com.example.pharmacy.repository.MedicationTombstoneRepository;
+import com.example.pharmacy.service.cache.DrugCatalogCache;
+import com.example.pharmacy.service.inputs.DrugFilter;
 import com.example.pharmacy.service.inputs.DrugModel;
+import com.example.pharmacy.service.search.DrugSearchIndex;
+import com.example.pharmacy.service.search.DrugSuggestTrie;
+import com.example.pharmacy.service.sync.CatalogChangeTracker;
+import com.example.pharmacy.service.sync.DrugChangeBroadcaster;
+import com.example.pharmacy.service.valueObjects.CatalogSnapshot;
 import com.example.pharmacy.service.valueObjects.Price;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service class for managing drug-related operations, such as
@@ -21,40 +55,200 @@ import java.util.stream.Collectors;
  */
 @Service
 public class DrugService {
+    /** Upper bound for the number of search hits returned at once. */
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    /** Upper bound for the page size of the drug listing. */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /** Upper bound for the number of changes returned by one delta sync. */
+    private static final int MAX_CHANGES = 1000;
+
+    /** Properties the drug listing can be sorted by; each is backed by an index. */
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "name", "manufacturer", "price", "stockQuantity", "expirationDate");
+
     private final DrugRepository drugRepository;
+    private final DrugCatalogCache catalogCache;
+    private final DrugSearchIndex searchIndex;
+    private final DrugSuggestTrie suggestTrie;
+    private final ObjectMapper objectMapper;
+    private final CatalogChangeTracker changeTracker;
+    private final MedicationTombstoneRepository tombstoneRepository;
+    private final DrugChangeBroadcaster changeBroadcaster;
 
     /**
-     * Constructor to inject DrugRepository.
+     * Constructor to inject DrugRepository, the catalog cache, the search index, the suggestion trie,
+     * the JSON mapper, the change tracking for delta sync and the change stream.
      *
      * @param drugRepository repository for accessing drug data
+     * @param catalogCache   read-through cache of the drug catalog
+     * @param searchIndex    in-memory full-text index over the catalog
+     * @param suggestTrie    prefix trie over the medication names
+     * @param objectMapper   JSON mapper used to pre-encode the catalog
+     * @param changeTracker  source of catalog change versions
+     * @param tombstoneRepository repository recording deleted medications
+     * @param changeBroadcaster pushes stock and price changes to stream subscribers
      */
     @Autowired
-    public DrugService(DrugRepository drugRepository) {
+    public DrugService(
+            DrugRepository drugRepository,
+            DrugCatalogCache catalogCache,
+            DrugSearchIndex searchIndex,
+            DrugSuggestTrie suggestTrie,
+            ObjectMapper objectMapper,
+            CatalogChangeTracker changeTracker,
+            MedicationTombstoneRepository tombstoneRepository,
+            DrugChangeBroadcaster changeBroadcaster
+    ) {
         this.drugRepository = drugRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.suggestTrie = suggestTrie;
+        this.objectMapper = objectMapper;
+        this.changeTracker = changeTracker;
+        this.tombstoneRepository = tombstoneRepository;
+        this.changeBroadcaster = changeBroadcaster;
     }
 
     /**
-     * Retrieves all medications from the database.
+     * Builds the search index from the database once the application has started.
+     * Afterwards the index is kept current by create, update and delete.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        searchIndex.rebuild(drugRepository.findAll());
+    }
+
+    /**
+     * Retrieves all medications, served from the catalog cache when possible.
      *
      * @return a list of GetDrugDto representing all drugs
      */
     public List<GetDrugDto> getAll(){
-        var medications = drugRepository.findAll();
-        return medications.stream()
-                .map(medication -> new GetDrugDto(
-                        medication.getId(),
-                        medication.getName(),
-                        medication.getManufacturer(),
-                        medication.getPrice(),
-                        medication.getExpirationDate(),
-                        medication.getStockQuantity() > 0,
-                        medication.getStockQuantity()
-                ))
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Retrieves a single medication by ID.
+        return catalogCache.getAll(() -> drugRepository.findAll().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Retrieves the full catalog pre-encoded as JSON and gzip.
+     * The bytes are built once per catalog version, so repeated requests skip serialization entirely.
+     *
+     * @return the catalog snapshot with its entity tag
+     */
+    public CatalogSnapshot getCatalogSnapshot() {
+        return catalogCache.getSnapshot(this::buildSnapshot);
+    }
+
+    /**
+     * Retrieves the catalog changes after a version, oldest first: current state of created or updated
+     * medications and IDs of deleted ones. A version of 0 or less returns the whole catalog without
+     * deletions, for the initial load of a mirror. At most 1000 changes are returned at a time;
+     * {@code hasMore} tells the client to ask again from the returned version.
+     *
+     * @param since the version the client is in sync with
+     * @param limit maximum number of changes, capped at 1000
+     * @return the changes and the version to sync from next time
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    @Transactional(readOnly = true)
+    public DrugChangesDto getChanges(long since, int limit) {
+        long upTo = changeTracker.safeVersion();
+
+        if (since <= 0) {
+            var all = drugRepository.findChanges(-1, upTo, Pageable.unpaged());
+            return new DrugChangesDto(upTo, false, all.stream().map(this::toDto).toList(), List.of());
+        }
+
+        int maxChanges = Math.min(Math.max(limit, 1), MAX_CHANGES);
+        var page = PageRequest.of(0, maxChanges + 1);
+        var updated = drugRepository.findChanges(since, upTo, page);
+        var deleted = tombstoneRepository.findChanges(since, upTo, page);
+
+        // Merge both version-ordered lists and stop after the limit
+        List<GetDrugDto> upserts = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        int u = 0;
+        int d = 0;
+        long version = since;
+        while (upserts.size() + deletes.size() < maxChanges && (u < updated.size() || d < deleted.size())) {
+            boolean takeUpdate = d >= deleted.size()
+                    || (u < updated.size() && updated.get(u).getChangeVersion() < deleted.get(d).getChangeVersion());
+            if (takeUpdate) {
+                var medication = updated.get(u++);
+                upserts.add(toDto(medication));
+                version = medication.getChangeVersion();
+            } else {
+                var tombstone = deleted.get(d++);
+                deletes.add(tombstone.getMedicationId());
+                version = tombstone.getChangeVersion();
+            }
+        }
+
+        boolean hasMore = u < updated.size() || d < deleted.size();
+        return new DrugChangesDto(hasMore ? version : upTo, hasMore, upserts, deletes);
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of stock and price changes.
+     *
+     * @return the emitter for the new subscription
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public SseEmitter streamChanges() {
+        return changeBroadcaster.subscribe();
+    }
+
+    /**
+     * Retrieves one page of medications matching the filter.
+     * When the total is not requested, one extra row is read instead of running a count query.
+     *
+     * @param filter       the filter criteria
+     * @param page         zero-based page number
+     * @param size         page size, capped at 100
+     * @param sort         sort property optionally followed by {@code ,asc} or {@code ,desc}
+     * @param includeTotal whether to count all matching medications
+     * @return the page of medications
+     * @throws RuntimeException if the sort property is not supported
+     */
+    public DrugPageDto getPage(DrugFilter filter, int page, int size, String sort, boolean includeTotal) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Sort order = parseSort(sort);
+        var specification = DrugSpecifications.matching(filter);
+
+        if (includeTotal) {
+            var result = drugRepository.findAll(specification, PageRequest.of(pageNumber, pageSize, order));
+            return new DrugPageDto(
+                    result.map(this::toDto).getContent(),
+                    pageNumber,
+                    pageSize,
+                    result.hasNext(),
+                    result.getTotalElements(),
+                    result.getTotalPages()
+            );
+        }
+
+        // Offset positions are exclusive: offset(n) continues after the n-th row
+        long offset = (long) pageNumber * pageSize;
+        var position = offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(offset - 1);
+        var window = drugRepository.findBy(specification, query -> query
+                .sortBy(order)
+                .limit(pageSize)
+                .scroll(position));
+        return new DrugPageDto(
+                window.getContent().stream().map(this::toDto).toList(),
+                pageNumber,
+                pageSize,
+                window.hasNext(),
+                null,
+                null
+        );
+    }
+
+    /**
+     * Retrieves a single medication by ID, served from the catalog cache when possible.
      *
      * @param id the ID of the medication
      * @return the medication as a GetDrugDto
@@ -62,16 +256,37 @@ public class DrugService {
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     public GetDrugDto getOne(int id){
-        var medication = drugRepository.findById((long) id)
+        return catalogCache.getOne(id, key -> drugRepository.findById((long) key).map(this::toDto))
                 .orElseThrow(() -> new RuntimeException("Medication not found"));
-        return new GetDrugDto(
-                medication.getId(),
-                medication.getName(),
-                medication.getManufacturer(),
-                medication.getPrice(),
-                medication.getExpirationDate(),
-                medication.getStockQuantity() > 0,
-                medication.getStockQuantity()
+    }
+
+    /**
+     * Searches medications by name and manufacturer.
+     * Matches whole words, word beginnings and word fragments; every query word has to match.
+     *
+     * @param query the search text
+     * @param limit maximum number of hits, capped at 100
+     * @return hits ordered by relevance
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public List<DrugSearchResultDto> search(String query, int limit) {
+        return searchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    /**
+     * Returns hit and miss statistics of the catalog cache.
+     *
+     * @return the cache statistics
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public CacheStatsDto getCacheStats() {
+        var stats = catalogCache.stats();
+        return new CacheStatsDto(
+                catalogCache.size(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
         );
     }
 
@@ -81,6 +296,7 @@ public class DrugService {
      * @param medication DTO containing drug creation data
      * @return a DTO representing the created drug
      */
+    @Transactional
     public CreateDrugResponseDto create(CreateDrugDto medication) {
         BigDecimal priceValue = BigDecimal.valueOf(medication.getPrice().floatValue());
         var price = Price.create(priceValue);
@@ -100,8 +316,12 @@ public class DrugService {
         drugEntity.setPrice(drugModel.getPrice());
         drugEntity.setStockQuantity(drugModel.getStockQuantity());
         drugEntity.setExpirationDate(drugModel.getExpirationDate());
+        drugEntity.setChangeVersion(changeTracker.nextVersion());
 
         var newDrug = drugRepository.save(drugEntity);
+        catalogCache.invalidate();
+        searchIndex.put(newDrug);
+        suggestTrie.put(newDrug);
 
         return new CreateDrugResponseDto(
                 newDrug.getId(),
@@ -120,11 +340,20 @@ public class DrugService {
      * @throws RuntimeException if the drug does not exist
      */
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public void delete(long id){
         if (!drugRepository.existsById(id)){
             throw new RuntimeException();
         }
         drugRepository.deleteById(id);
+        tombstoneRepository.save(new MedicationTombstoneEntity(
+                (int) id,
+                changeTracker.nextVersion(),
+                Timestamp.from(Instant.now())
+        ));
+        catalogCache.invalidate();
+        searchIndex.remove((int) id);
+        suggestTrie.remove((int) id);
     }
 
     /**
@@ -135,6 +364,7 @@ public class DrugService {
      * @return a DTO representing the updated drug
      * @throws RuntimeException if the drug is not found
      */
+    @Transactional
     public CreateDrugResponseDto updateDrug(int id, CreateDrugDto dto) {
         MedicationsEntity drug = drugRepository.findById((long) id)
                 .orElseThrow(() -> new RuntimeException("Drug not found"));
@@ -144,8 +374,18 @@ public class DrugService {
         drug.setPrice(dto.getPrice());
         drug.setExpirationDate(dto.getExpirationDate());
         drug.setStockQuantity(dto.getStockQuantity());
+        drug.setChangeVersion(changeTracker.nextVersion());
 
         drugRepository.save(drug);
+        catalogCache.invalidate();
+        searchIndex.put(drug);
+        suggestTrie.put(drug);
+        changeBroadcaster.publish(new DrugStockChangeDto(
+                drug.getId(),
+                drug.getStockQuantity(),
+                drug.getPrice(),
+                drug.getChangeVersion()
+        ));
 
         return new CreateDrugResponseDto(
                 drug.getId(),
@@ -157,4 +397,74 @@ public class DrugService {
         );
     }
 
+    /**
+     * Parses a sort parameter such as {@code price,desc}. The ID is appended as a tie-breaker
+     * so pages stay stable when many medications share a value.
+     *
+     * @param sort the sort parameter, or null to sort by name
+     * @return the sort order
+     * @throws RuntimeException if the property or direction is not supported
+     */
+    private static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by("name", "id");
+        }
+
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new RuntimeException("Unsupported sort property: " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new RuntimeException("Unsupported sort direction: " + parts[1]))
+                : Sort.Direction.ASC;
+
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Encodes the catalog as JSON, compresses it and derives a strong entity tag from the JSON bytes.
+     *
+     * @param version the catalog version the snapshot belongs to
+     * @return the new snapshot
+     */
+    private CatalogSnapshot buildSnapshot(long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(getAll());
+
+            var compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+
+            return new CatalogSnapshot(version, json, compressed.toByteArray(), etag, System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode the catalog", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Maps a medication entity to its catalog DTO.
+     *
+     * @param medication the medication entity
+     * @return the catalog DTO
+     */
+    private GetDrugDto toDto(MedicationsEntity medication) {
+        return new GetDrugDto(
+                medication.getId(),
+                medication.getName(),
+                medication.getManufacturer(),
+                medication.getPrice(),
+                medication.getExpirationDate(),
+                medication.getStockQuantity() > 0,
+                medication.getStockQuantity()
+        );
+    }
 }
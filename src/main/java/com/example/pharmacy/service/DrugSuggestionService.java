@@ -0,0 +1,92 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.controller.dto.drug.DrugSuggestionDto;
+import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.SaleRepository;
+import com.example.pharmacy.service.search.DrugSuggestTrie;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service for type-ahead suggestions of medication names, ranked by recent sales volume.
+ * Lookups are answered from {@link DrugSuggestTrie}; sales raise the ranking as they are recorded,
+ * and a scheduled refresh reloads the totals so sales older than the window drop out.
+ */
+@Service
+public class DrugSuggestionService {
+
+    private final DrugRepository drugRepository;
+    private final SaleRepository saleRepository;
+    private final DrugSuggestTrie suggestTrie;
+
+    /**
+     * How far back sales count towards a medication's popularity.
+     * Configurable via `suggest.popularity-window`.
+     */
+    @Value("${suggest.popularity-window:30d}")
+    private Duration popularityWindow;
+
+    /**
+     * Constructs the DrugSuggestionService with necessary dependencies.
+     *
+     * @param drugRepository repository for the medication names
+     * @param saleRepository repository for the sales volumes
+     * @param suggestTrie    prefix trie the suggestions are served from
+     */
+    @Autowired
+    public DrugSuggestionService(
+            DrugRepository drugRepository,
+            SaleRepository saleRepository,
+            DrugSuggestTrie suggestTrie
+    ) {
+        this.drugRepository = drugRepository;
+        this.saleRepository = saleRepository;
+        this.suggestTrie = suggestTrie;
+    }
+
+    /**
+     * Returns the best-selling medications whose name starts with the prefix.
+     *
+     * @param prefix the typed prefix
+     * @param limit  maximum number of suggestions
+     * @return suggestions ordered by recent units sold
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public List<DrugSuggestionDto> suggest(String prefix, int limit) {
+        return suggestTrie.suggest(prefix, limit);
+    }
+
+    /**
+     * Rebuilds the trie from the catalog and the sales within the popularity window.
+     * Runs at startup and then periodically; the interval is configurable via `suggest.refresh-interval`.
+     */
+    @Scheduled(fixedDelayString = "${suggest.refresh-interval:3600000}")
+    public void refresh() {
+        var since = Timestamp.from(Instant.now().minus(popularityWindow));
+        suggestTrie.rebuild(drugRepository::findAll, () -> unitsSoldSince(since));
+    }
+
+    /**
+     * Sums the units sold per medication since the given time.
+     *
+     * @param since start of the popularity window
+     * @return units sold per medication ID
+     */
+    private Map<Integer, Long> unitsSoldSince(Timestamp since) {
+        return saleRepository.sumQuantityByMedicationSince(since).stream()
+                .collect(Collectors.toMap(
+                        SaleRepository.MedicationVolume::getMedicationId,
+                        SaleRepository.MedicationVolume::getUnitsSold
+                ));
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.infrastructure.entity.IdempotencyKeyEntity;
+import com.example.pharmacy.repository.IdempotencyKeyRepository;
+import com.example.pharmacy.service.errors.IdempotencyKeyInProgressError;
+import com.example.pharmacy.service.errors.IdempotencyKeyReusedError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Service that makes retried requests safe by executing each {@code Idempotency-Key} only once.
+ * <p>
+ * The key is inserted first, in the same transaction as the request's effects. A concurrent duplicate
+ * blocks on that insert and fails with a duplicate key once the first request commits, then replays the
+ * stored response. New keys therefore cost a single insert; replays are served from an in-memory cache
+ * in front of the table. Keys expire after a TTL and are purged periodically.
+ */
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyKeyRepository keyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, StoredOutcome> outcomes;
+
+    /**
+     * Constructs the IdempotencyService with necessary dependencies.
+     *
+     * @param keyRepository      repository for stored keys
+     * @param objectMapper       JSON mapper for request fingerprints and stored responses
+     * @param transactionManager transaction manager the request and its key share a transaction in
+     * @param ttl                how long a key is remembered; configurable via `idempotency.ttl`
+     * @param cacheSize          number of outcomes kept in memory; configurable via `idempotency.cache.max-size`
+     */
+    @Autowired
+    public IdempotencyService(
+            IdempotencyKeyRepository keyRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.cache.max-size:10000}") long cacheSize
+    ) {
+        this.keyRepository = keyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs an operation at most once per user and idempotency key. A repeated request with the same key
+     * returns the stored result without running the operation again. Without a key the operation simply runs.
+     *
+     * @param username   the user making the request
+     * @param key        the client-supplied idempotency key, or null
+     * @param operation  name of the operation, part of the request fingerprint
+     * @param request    the request body, part of the request fingerprint; the fingerprint is stored,
+     *                   so callers pass a view without secrets such as card data
+     * @param resultType type of the operation's result, used to read back a stored result
+     * @param action     the operation
+     * @param <T>        the result type
+     * @return the result of the first execution
+     * @throws IdempotencyKeyReusedError     if the key was used for a different request
+     * @throws IdempotencyKeyInProgressError if a request with the key is still running
+     */
+    public <T> T execute(
+            String username,
+            String key,
+            String operation,
+            Object request,
+            Class<T> resultType,
+            Supplier<T> action
+    ) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String id = sha256(username + '\n' + key);
+        String requestHash = sha256(operation + '\n' + toJson(request));
+
+        StoredOutcome cached = outcomes.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash, resultType);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                var now = Instant.now();
+                var entity = new IdempotencyKeyEntity(
+                        id,
+                        requestHash,
+                        Timestamp.from(now),
+                        Timestamp.from(now.plus(ttl))
+                );
+                // Flush right away so a duplicate key fails before the operation runs
+                try {
+                    keyRepository.saveAndFlush(entity);
+                } catch (DataIntegrityViolationException e) {
+                    throw new DuplicateKeyException(e);
+                }
+
+                T result = action.get();
+                String body = result == null ? null : toJson(result);
+                entity.setResponseBody(body);
+
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        outcomes.put(id, new StoredOutcome(requestHash, body));
+                    }
+                });
+                return result;
+            });
+        } catch (DuplicateKeyException e) {
+            var stored = keyRepository.findById(id).orElseThrow(IdempotencyKeyInProgressError::new);
+            var outcome = new StoredOutcome(stored.getRequestHash(), stored.getResponseBody());
+            outcomes.put(id, outcome);
+            return replay(outcome, requestHash, resultType);
+        }
+    }
+
+    /**
+     * Deletes expired keys from the table.
+     * Runs periodically; the interval is configurable via `idempotency.purge-interval`.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        keyRepository.deleteExpired(Timestamp.from(Instant.now()));
+    }
+
+    private <T> T replay(StoredOutcome outcome, String requestHash, Class<T> resultType) {
+        if (!outcome.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedError();
+        }
+        if (outcome.responseBody() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(outcome.responseBody(), resultType);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read the stored response", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode the request", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Signals that the key row already exists, as opposed to a constraint violation raised by the operation.
+     */
+    private static final class DuplicateKeyException extends RuntimeException {
+        DuplicateKeyException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Request fingerprint and response of a completed request.
+     */
+    private record StoredOutcome(String requestHash, String responseBody) {
+    }
+}
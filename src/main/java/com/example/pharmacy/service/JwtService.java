@@ -1,15 +1,18 @@
 package com.example.pharmacy.service;
 
 import com.example.pharmacy.infrastructure.entity.UserEntity;
+import com.example.pharmacy.service.valueObjects.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
-import java.util.function.Function;
 
 /**
  * Service responsible for creating and validating JWT tokens.
@@ -31,6 +34,23 @@ public class JwtService {
     @Value("${security.token.secret}")
     private String SECRET_KEY;
 
+    /** HMAC key derived once from {@link #SECRET_KEY}. */
+    private SecretKey signingKey;
+
+    /** Thread-safe parser reused for every token verification. */
+    private JwtParser parser;
+
+    /**
+     * Derives the signing key and builds the parser once the secret has been injected.
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     /**
      * Creates a signed JWT token for the given user.
      *
@@ -45,58 +65,26 @@ public class JwtService {
                 .claim("role", user.getRole())
                 .issuedAt(new Date(now))
                 .expiration(new Date(now + JWT_VALIDITY))
-                .signWith(generateKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * Verifies if a token is valid and not expired.
-     *
-     * @param token the JWT token
-     * @return true if token is valid, false if expired or invalid
-     */
-    public boolean verifyToken(String token) {
-        return !isTokenExpired(token);
-    }
-
-    /**
-     * Checks if the token has expired.
-     *
-     * @param token the JWT token
-     * @return true if expired, false otherwise
-     */
-    private boolean isTokenExpired(String token) {
-        return getExpirationDate(token).before(new Date());
-    }
-
-    /**
-     * Extracts the username (subject) from the token.
-     *
-     * @param token the JWT token
-     * @return username stored in token
-     */
-    public String getUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    /**
-     * Extracts the user role from the token.
-     *
-     * @param token the JWT token
-     * @return user role string
-     */
-    public String getUserRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
-    }
-
-    /**
-     * Extracts the expiration date of the token.
+     * Parses a token once, checking its signature and expiry, and returns its claims.
      *
      * @param token the JWT token
-     * @return expiration date
+     * @return the verified token claims
+     * @throws JwtException if the token is malformed, has an invalid signature or is expired
      */
-    public Date getExpirationDate(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get("id", Number.class);
+        return new VerifiedToken(
+                userId == null ? null : userId.longValue(),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration()
+        );
     }
 
     /**
@@ -106,32 +94,6 @@ public class JwtService {
      * @return JWT claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(generateKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Extracts a specific claim using a resolver function.
-     *
-     * @param token          the JWT token
-     * @param claimsResolver function to extract the desired claim
-     * @param <T>            type of the returned claim
-     * @return extracted claim
-     */
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    /**
-     * Generates a secret key for HMAC signing based on the configured secret.
-     *
-     * @return secret key
-     */
-    private SecretKey generateKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
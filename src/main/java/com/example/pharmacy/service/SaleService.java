@@ -3,21 +3,41 @@ package com.example.pharmacy.service;
 import com.example.pharmacy.controller.dto.sale.CreateSaleDto;
 import com.example.pharmacy.controller.dto.sale.CreateSaleResponseDto;
 import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import com.example.pharmacy.controller.dto.sale.OutboxStatsDto;
+import com.example.pharmacy.controller.dto.sale.SalePageDto;
+import com.example.pharmacy.infrastructure.entity.SaleOutboxEntity;
 import com.example.pharmacy.infrastructure.entity.SalesEntity;
-import com.example.pharmacy.infrastructure.entity.UserEntity;
-import com.example.pharmacy.repository.CustomerRepository;
 import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.SaleArchiveRepository;
+import com.example.pharmacy.repository.SaleOutboxRepository;
 import com.example.pharmacy.repository.SaleRepository;
-import com.example.pharmacy.repository.IUserRepository;
+import com.example.pharmacy.service.archive.SalesArchiver;
+import com.example.pharmacy.service.cache.VerifiedTokenCache;
 import com.example.pharmacy.service.inputs.SaleModel;
+import com.example.pharmacy.service.outbox.SaleOutboxRelay;
+import com.example.pharmacy.service.search.DrugSuggestTrie;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service for managing medication sales and retrieving related data.
@@ -25,101 +45,172 @@ import java.util.stream.Collectors;
 @Service
 public class SaleService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SaleService.class);
+
     private final SaleRepository saleRepository;
-    private final JwtService jwtService;
-    private final IUserRepository userRepository;
-    private final CustomerRepository customerRepository;
+    private final VerifiedTokenCache tokenCache;
     private final DrugRepository drugRepository;
+    private final ObjectMapper objectMapper;
+    private final DrugSuggestTrie suggestTrie;
+    private final SaleOutboxRepository outboxRepository;
+    private final SaleOutboxRelay outboxRelay;
+    private final SalesReportService salesReportService;
+    private final SaleArchiveRepository archiveRepository;
+    private final SalesArchiver archiver;
+
+    /** Number of rows written between flushes of the export stream. */
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+
+    /** Upper bound for the page size of the customer purchase history. */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /** Order of the customer purchase history: newest first, ties broken by descending ID. */
+    private static final Comparator<GetSaleDto> HISTORY_ORDER =
+            Comparator.comparing(GetSaleDto::getSaleDate).thenComparingInt(GetSaleDto::getId).reversed();
 
     /**
      * Constructs the SaleService with necessary dependencies.
      *
      * @param saleRepository       Repository for sale records
-     * @param jwtService           JWT token service for user identification
-     * @param userRepository       User repository for user info
-     * @param customerRepository   Customer repository
+     * @param tokenCache           cache of verified JWTs, identifying the current customer
      * @param drugRepository       Drug repository
+     * @param objectMapper         JSON mapper used for the NDJSON export
+     * @param suggestTrie          suggestion trie whose popularity weights follow the sales
+     * @param outboxRepository     outbox the sale events are written to
+     * @param outboxRelay          relay draining the outbox, for its statistics
+     * @param salesReportService   service keeping the daily sales rollup in step with the sales
+     * @param archiveRepository    repository of the sales moved out of the sales table
+     * @param archiver             archive job, telling which sale dates may be archived
      */
     @Autowired
     public SaleService(
             SaleRepository saleRepository,
-            JwtService jwtService,
-            IUserRepository userRepository,
-            CustomerRepository customerRepository,
-            DrugRepository drugRepository
+            VerifiedTokenCache tokenCache,
+            DrugRepository drugRepository,
+            ObjectMapper objectMapper,
+            DrugSuggestTrie suggestTrie,
+            SaleOutboxRepository outboxRepository,
+            SaleOutboxRelay outboxRelay,
+            SalesReportService salesReportService,
+            SaleArchiveRepository archiveRepository,
+            SalesArchiver archiver
     ) {
         this.saleRepository = saleRepository;
-        this.jwtService = jwtService;
-        this.userRepository = userRepository;
-        this.customerRepository = customerRepository;
+        this.tokenCache = tokenCache;
         this.drugRepository = drugRepository;
+        this.objectMapper = objectMapper;
+        this.suggestTrie = suggestTrie;
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
+        this.salesReportService = salesReportService;
+        this.archiveRepository = archiveRepository;
+        this.archiver = archiver;
     }
 
     /**
      * Retrieves all sales records with resolved customer and medication names.
+     * Names are resolved by the repository join, so this issues a single query,
+     * plus one for the archived sales once any sale has been archived.
      *
      * @return list of sale DTOs
      */
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<GetSaleDto> getAll() {
-        return saleRepository.findAll().stream()
-                .map(sale -> {
-                    String customerName = userRepository.findById(Long.valueOf(sale.getCustomerId()))
-                            .map(UserEntity::getUsername)
-                            .orElse("Unknown Customer");
-
-                    String medicationName = drugRepository.findById(Long.valueOf(sale.getMedicationId()))
-                            .map(drug -> drug.getName())
-                            .orElse("Unknown Medication");
-
-                    return new GetSaleDto(
-                            sale.getId(),
-                            customerName,
-                            medicationName,
-                            sale.getQuantity(),
-                            sale.getTotalPrice(),
-                            sale.getSaleDate()
-                    );
-                })
-                .collect(Collectors.toList());
+        if (!archiver.hasArchive()) {
+            return saleRepository.findAllWithNames();
+        }
+        // Both reads run in one transaction, so a sale archived in between is seen exactly once
+        List<GetSaleDto> sales = new ArrayList<>(archiveRepository.findAllWithNames());
+        sales.addAll(saleRepository.findAllWithNames());
+        return sales;
+    }
+
+    /**
+     * Writes all sales records as newline-delimited JSON, one {@link GetSaleDto} per line.
+     * Rows are read from a forward-only database cursor and written as they arrive,
+     * so memory use does not depend on the size of the sales table. Archived sales are written first.
+     * Every line has the same shape; the row count and the export rate are logged once the export completes.
+     *
+     * @param out stream the NDJSON document is written to
+     * @throws IOException if writing to the output stream fails
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long rows = 0;
+
+        if (archiver.hasArchive()) {
+            try (Stream<GetSaleDto> archived = archiveRepository.streamAllWithNames()) {
+                rows = writeRows(archived, out, rows);
+            }
+        }
+        try (Stream<GetSaleDto> sales = saleRepository.streamAllWithNames()) {
+            rows = writeRows(sales, out, rows);
+        }
+
+        out.flush();
+
+        double seconds = Math.max(System.nanoTime() - started, 1) / 1_000_000_000.0;
+        logger.info("Exported {} sales in {} ms ({} rows/s)",
+                rows, Math.round(seconds * 1000), Math.round(rows / seconds));
+    }
+
+    /**
+     * Writes sale rows as NDJSON lines, flushing every {@link #EXPORT_FLUSH_INTERVAL} rows.
+     *
+     * @param sales the rows to write
+     * @param out   stream the lines are written to
+     * @param rows  number of rows written so far
+     * @return number of rows written so far, including these
+     * @throws IOException if writing to the output stream fails
+     */
+    private long writeRows(Stream<GetSaleDto> sales, OutputStream out, long rows) throws IOException {
+        Iterator<GetSaleDto> iterator = sales.iterator();
+        while (iterator.hasNext()) {
+            out.write(objectMapper.writeValueAsBytes(iterator.next()));
+            out.write('\n');
+            if (++rows % EXPORT_FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+        }
+        return rows;
     }
 
     /**
-     * Retrieves a single sale record by ID.
+     * Retrieves a single sale record by ID, looking in the archive if it is not a live sale.
      *
      * @param id ID of the sale
      * @return DTO of the sale
      * @throws RuntimeException if sale not found
      */
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public GetSaleDto getOne(long id) {
-        var sale = saleRepository.findById(id)
+        return saleRepository.findOneWithNames((int) id)
+                .or(() -> archiver.hasArchive() ? archiveRepository.findOneWithNames((int) id) : Optional.empty())
                 .orElseThrow(() -> new RuntimeException("Sale not found"));
+    }
 
-        String customerName = userRepository.findById(Long.valueOf(sale.getCustomerId()))
-                .map(UserEntity::getUsername)
-                .orElse("Unknown Customer");
-
-        String medicationName = drugRepository.findById(Long.valueOf(sale.getMedicationId()))
-                .map(drug -> drug.getName())
-                .orElse("Unknown Medication");
-
-        return new GetSaleDto(
-                sale.getId(),
-                customerName,
-                medicationName,
-                sale.getQuantity(),
-                sale.getTotalPrice(),
-                sale.getSaleDate()
-        );
+    /**
+     * Returns the lag and throughput of the sale event relay.
+     *
+     * @return the relay statistics
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public OutboxStatsDto getOutboxStats() {
+        return outboxRelay.getStats();
     }
 
     /**
-     * Creates and saves a new sale record.
+     * Creates and saves a new sale record, and writes its sale event to the outbox
+     * and its totals to the daily rollup in the same transaction.
      *
      * @param saleDto DTO with sale input data
      * @return response DTO with persisted sale data
      */
+    @Transactional
     public CreateSaleResponseDto create(CreateSaleDto saleDto) {
         var now = Timestamp.from(Instant.now());
 
@@ -139,7 +230,10 @@ public class SaleService {
         entity.setTotalPrice(model.getTotalPrice());
         entity.setSaleDate(model.getSaleDate());
 
+        salesReportService.record(List.of(entity));
         var saved = saleRepository.save(entity);
+        outboxRepository.save(new SaleOutboxEntity(saved, now));
+        suggestTrie.recordSale(saved.getMedicationId(), saved.getQuantity());
 
         return new CreateSaleResponseDto(
                 saved.getId(),
@@ -152,49 +246,164 @@ public class SaleService {
     }
 
     /**
-     * Deletes a sale record by ID.
+     * Creates and saves several sale records with the same sale date in one batch,
+     * together with their sale events in the outbox and their totals in the daily rollup.
+     *
+     * @param saleDtos DTOs with sale input data
+     * @return response DTOs with persisted sale data, in input order
+     */
+    @Transactional
+    public List<CreateSaleResponseDto> createAll(List<CreateSaleDto> saleDtos) {
+        var now = Timestamp.from(Instant.now());
+
+        var entities = saleDtos.stream()
+                .map(saleDto -> {
+                    var entity = new SalesEntity();
+                    entity.setCustomerId(saleDto.getCustomerId());
+                    entity.setMedicationId(saleDto.getMedicationId());
+                    entity.setQuantity(saleDto.getQuantity());
+                    entity.setTotalPrice(saleDto.getTotalPrice());
+                    entity.setSaleDate(now);
+                    return entity;
+                })
+                .toList();
+
+        salesReportService.record(entities);
+        var saved = saleRepository.saveAll(entities);
+        outboxRepository.saveAll(saved.stream().map(sale -> new SaleOutboxEntity(sale, now)).toList());
+        saved.forEach(sale -> suggestTrie.recordSale(sale.getMedicationId(), sale.getQuantity()));
+
+        return saved.stream()
+                .map(sale -> new CreateSaleResponseDto(
+                        sale.getId(),
+                        sale.getCustomerId(),
+                        sale.getMedicationId(),
+                        sale.getQuantity(),
+                        sale.getTotalPrice(),
+                        sale.getSaleDate()
+                ))
+                .toList();
+    }
+
+    /**
+     * Deletes a sale record by ID, live or archived, and removes it from the daily rollup in the same transaction.
      *
      * @param id ID of the sale
      * @throws RuntimeException if sale does not exist
      */
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public void delete(long id) {
-        if (!saleRepository.existsById(id)) {
-            throw new RuntimeException("Sale not found");
+        var sale = saleRepository.findById(id).orElse(null);
+        if (sale != null) {
+            salesReportService.retract(sale);
+            saleRepository.delete(sale);
+            return;
         }
-        saleRepository.deleteById(id);
+
+        var archived = archiveRepository.findById((int) id)
+                .orElseThrow(() -> new RuntimeException("Sale not found"));
+        salesReportService.retract(archived.toSalesEntity());
+        archiveRepository.delete(archived);
     }
 
     /**
-     * Retrieves all sales made by the currently authenticated customer.
+     * Retrieves one page of the sales made by the currently authenticated customer, newest first.
+     * Pages are addressed by a keyset cursor on {@code (sale_date, id)} rather than an offset,
+     * so deep pages are as cheap as the first one.
+     * Archived sales are read only when the page reaches back past the archive watermark,
+     * and then merged with the live rows in the same order.
+     * The customer is identified by the user ID claim of the token, without a database lookup.
      *
-     * @param token JWT token of the logged-in customer
-     * @return list of sale DTOs
+     * @param token  JWT token of the logged-in customer
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param size   maximum number of sales on the page
+     * @return page of sale DTOs with the cursor for the next page
      */
     @PreAuthorize("hasRole('CUSTOMER')")
-    public List<GetSaleDto> getSalesForCurrentCustomer(String token) {
-        String username = jwtService.getUsername(token);
-        UserEntity user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        int customerId = customerRepository.findByEmail(user.getUsername())
-                .orElseThrow(() -> new RuntimeException("Customer not found")).getId();
-
-        return saleRepository.findByCustomerId(customerId).stream()
-                .map(sale -> {
-                    String medicationName = drugRepository.findById(Long.valueOf(sale.getMedicationId()))
-                            .map(drug -> drug.getName())
-                            .orElse("Unknown Medication");
-
-                    return new GetSaleDto(
-                            sale.getId(),
-                            user.getUsername(),
-                            medicationName,
-                            sale.getQuantity(),
-                            sale.getTotalPrice(),
-                            sale.getSaleDate()
-                    );
-                })
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public SalePageDto getSalesForCurrentCustomer(String token, String cursor, int size) {
+        // Sales store the buyer's user ID, which the token carries; the claims were cached by the auth filter
+        Long userId = tokenCache.verify(token).getUserId();
+        if (userId == null) {
+            throw new RuntimeException("User not found");
+        }
+        int customerId = userId.intValue();
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether another page exists without a count query
+        var limit = PageRequest.of(0, pageSize + 1);
+
+        SaleCursor position = cursor == null || cursor.isBlank() ? null : SaleCursor.decode(cursor);
+        List<GetSaleDto> rows = position == null
+                ? saleRepository.findFirstPageByCustomerId(customerId, limit)
+                : saleRepository.findPageByCustomerIdAfter(customerId, position.saleDate(), position.id(), limit);
+
+        // Every archived sale is older than the watermark, so a full page ending after it needs no archive rows
+        boolean needsArchive = rows.size() <= pageSize
+                ? archiver.hasArchive()
+                : archiver.mayHoldSalesUpTo(rows.get(rows.size() - 1).getSaleDate());
+        if (needsArchive) {
+            List<GetSaleDto> archived = position == null
+                    ? archiveRepository.findFirstPageByCustomerId(customerId, limit)
+                    : archiveRepository.findPageByCustomerIdAfter(customerId, position.saleDate(), position.id(), limit);
+            if (!archived.isEmpty()) {
+                List<GetSaleDto> merged = new ArrayList<>(rows);
+                merged.addAll(archived);
+                merged.sort(HISTORY_ORDER);
+                rows = merged.subList(0, Math.min(merged.size(), pageSize + 1));
+            }
+        }
+
+        if (rows.size() <= pageSize) {
+            return new SalePageDto(rows, null);
+        }
+
+        List<GetSaleDto> page = rows.subList(0, pageSize);
+        GetSaleDto last = page.get(pageSize - 1);
+        return new SalePageDto(page, new SaleCursor(last.getSaleDate(), last.getId()).encode());
+    }
+
+    /**
+     * Keyset position of a sale, serialized as an opaque URL-safe token.
+     * The sale date keeps its full precision: {@code sale_date} stores microseconds, and a date cut to
+     * milliseconds would skip the rows of the same millisecond that sort after the last row of the page.
+     *
+     * @param saleDate sale date of the row
+     * @param id       ID of the row
+     */
+    private record SaleCursor(Timestamp saleDate, int id) {
+
+        /**
+         * Encodes this position as a cursor token.
+         *
+         * @return the cursor token
+         */
+        String encode() {
+            Instant instant = saleDate.toInstant();
+            String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Decodes a cursor token produced by {@link #encode()}.
+         *
+         * @param token the cursor token
+         * @return the decoded position
+         * @throws RuntimeException if the token is malformed
+         */
+        static SaleCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split(":");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Expected 3 parts");
+                }
+                Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+                return new SaleCursor(Timestamp.from(instant), Integer.parseInt(parts[2]));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
     }
 }
@@ -0,0 +1,266 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.controller.dto.report.SalesAnalyticsDto;
+import com.example.pharmacy.controller.dto.report.SalesAnalyticsRowDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.SaleArchiveRepository;
+import com.example.pharmacy.repository.SaleRepository;
+import com.example.pharmacy.service.analytics.SalesColumnStore;
+import com.example.pharmacy.service.analytics.SalesColumnStore.Dimension;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Service answering ad-hoc group-by questions over all sales from {@link SalesColumnStore}.
+ * The store is loaded from the database once on startup and then follows the sales as they are
+ * created and deleted, so queries never touch the sales table.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    /** Upper bound for the number of returned groups. */
+    private static final int MAX_LIMIT = 10000;
+
+    /** Dimensions by their name in the {@code groupBy} parameter. */
+    private static final Map<String, Dimension> DIMENSIONS = Map.of(
+            "medication", Dimension.MEDICATION,
+            "manufacturer", Dimension.MANUFACTURER,
+            "customer", Dimension.CUSTOMER,
+            "year", Dimension.YEAR,
+            "month", Dimension.MONTH,
+            "day", Dimension.DAY,
+            "dayOfWeek", Dimension.DAY_OF_WEEK,
+            "hour", Dimension.HOUR
+    );
+
+    /** Dimensions whose groups are listed in time order rather than by revenue. */
+    private static final Set<Dimension> TIME_DIMENSIONS =
+            EnumSet.of(Dimension.YEAR, Dimension.MONTH, Dimension.DAY, Dimension.DAY_OF_WEEK, Dimension.HOUR);
+
+    private final SaleRepository saleRepository;
+    private final SaleArchiveRepository archiveRepository;
+    private final DrugRepository drugRepository;
+    private final SalesColumnStore columnStore;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructs the service.
+     *
+     * @param saleRepository     repository the store is loaded from
+     * @param archiveRepository  repository of the archived sales, also loaded into the store
+     * @param drugRepository     repository of the medication names and manufacturers
+     * @param columnStore        column store the queries run on
+     * @param transactionManager transaction manager for the startup load
+     */
+    @Autowired
+    public SalesAnalyticsService(
+            SaleRepository saleRepository,
+            SaleArchiveRepository archiveRepository,
+            DrugRepository drugRepository,
+            SalesColumnStore columnStore,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.saleRepository = saleRepository;
+        this.archiveRepository = archiveRepository;
+        this.drugRepository = drugRepository;
+        this.columnStore = columnStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads every sale, archived ones first, into the column store. Runs before the application accepts requests,
+     * so no sale is missed or loaded twice.
+     */
+    @PostConstruct
+    public void load() {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            columnStore.clear();
+            try (Stream<SaleRepository.SaleFacts> archived = archiveRepository.streamFacts()) {
+                archived.forEach(this::append);
+            }
+            try (Stream<SaleRepository.SaleFacts> sales = saleRepository.streamFacts()) {
+                sales.forEach(this::append);
+            }
+        });
+        logger.info("Loaded {} sales into the analytics store in {} ms ({} MB of columns)",
+                columnStore.size(), (System.nanoTime() - started) / 1_000_000, columnStore.allocatedBytes() >> 20);
+    }
+
+    /**
+     * Appends one stored sale to the column store.
+     *
+     * @param sale the sale columns
+     */
+    private void append(SaleRepository.SaleFacts sale) {
+        columnStore.append(
+                sale.getMedicationId(),
+                sale.getCustomerId() == null ? SalesColumnStore.NO_CUSTOMER : sale.getCustomerId(),
+                sale.getSaleDate().getTime(),
+                SalesColumnStore.toCents(sale.getTotalPrice()),
+                sale.getQuantity()
+        );
+    }
+
+    /**
+     * Groups the sales by one or two dimensions and sums units, revenue and number of sales per group.
+     *
+     * @param groupBy      comma-separated dimensions: medication, manufacturer, customer, year, month, day, dayOfWeek or hour
+     * @param from         first sale day, inclusive; null for no lower bound
+     * @param to           last sale day, inclusive; null for no upper bound
+     * @param medicationId only sales of this medication; null for all
+     * @param customerId   only sales of this customer; null for all
+     * @param manufacturer only sales of medications by this manufacturer, ignoring case; null for all
+     * @param limit        maximum number of groups returned
+     * @return the groups, in time order when grouped by time first, otherwise by revenue descending
+     * @throws RuntimeException if the grouping is missing, too long or not supported
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public SalesAnalyticsDto query(
+            String groupBy,
+            LocalDate from,
+            LocalDate to,
+            Integer medicationId,
+            Integer customerId,
+            String manufacturer,
+            int limit
+    ) {
+        List<String> dimensionNames = parseGroupBy(groupBy);
+        List<Dimension> dimensions = dimensionNames.stream().map(DIMENSIONS::get).toList();
+        ZoneId zone = ZoneId.systemDefault();
+
+        List<MedicationsEntity> catalog = drugRepository.findAll();
+        int maxId = catalog.stream().mapToInt(MedicationsEntity::getId).max().orElse(0);
+        Map<Integer, String> names = new HashMap<>();
+        List<String> manufacturers = new ArrayList<>();
+        Map<String, Integer> manufacturerIndex = new HashMap<>();
+        int[] manufacturerOf = new int[maxId + 1];
+        Arrays.fill(manufacturerOf, -1);
+        for (MedicationsEntity medication : catalog) {
+            names.put(medication.getId(), medication.getName());
+            if (medication.getManufacturer() != null) {
+                manufacturerOf[medication.getId()] = manufacturerIndex.computeIfAbsent(medication.getManufacturer(), name -> {
+                    manufacturers.add(name);
+                    return manufacturers.size() - 1;
+                });
+            }
+        }
+
+        boolean[] medications = null;
+        if (medicationId != null || manufacturer != null) {
+            medications = new boolean[maxId + 1];
+            for (MedicationsEntity medication : catalog) {
+                medications[medication.getId()] =
+                        (medicationId == null || medication.getId() == medicationId)
+                                && (manufacturer == null || manufacturer.equalsIgnoreCase(medication.getManufacturer()));
+            }
+        }
+
+        var query = new SalesColumnStore.Query(
+                dimensions,
+                from == null ? Long.MIN_VALUE : from.atStartOfDay(zone).toInstant().toEpochMilli(),
+                to == null ? Long.MAX_VALUE : to.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+                medications,
+                customerId == null ? SalesColumnStore.NO_CUSTOMER : customerId,
+                manufacturerOf,
+                zone
+        );
+
+        long started = System.nanoTime();
+        var result = columnStore.query(query);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        Comparator<Map.Entry<Long, SalesColumnStore.Totals>> order = TIME_DIMENSIONS.contains(dimensions.get(0))
+                ? Map.Entry.comparingByKey()
+                : Comparator.comparing((Map.Entry<Long, SalesColumnStore.Totals> group) -> group.getValue().getCents())
+                        .reversed()
+                        .thenComparing(Map.Entry.comparingByKey());
+
+        List<SalesAnalyticsRowDto> rows = result.groups().entrySet().stream()
+                .sorted(order)
+                .limit(Math.min(Math.max(limit, 1), MAX_LIMIT))
+                .map(group -> new SalesAnalyticsRowDto(
+                        labels(group.getKey(), dimensions, names, manufacturers),
+                        group.getValue().getUnits(),
+                        BigDecimal.valueOf(group.getValue().getCents(), 2),
+                        group.getValue().getSales()
+                ))
+                .toList();
+
+        return new SalesAnalyticsDto(
+                dimensionNames,
+                rows,
+                result.groups().size(),
+                result.rowsScanned(),
+                elapsedMillis
+        );
+    }
+
+    /**
+     * Parses the comma-separated grouping.
+     *
+     * @param groupBy the grouping parameter
+     * @return names of one or two dimensions, as spelled in {@link #DIMENSIONS}
+     * @throws RuntimeException if the grouping is missing, too long or not supported
+     */
+    private static List<String> parseGroupBy(String groupBy) {
+        if (groupBy == null || groupBy.isBlank()) {
+            throw new RuntimeException("groupBy is required");
+        }
+        List<String> dimensions = new ArrayList<>();
+        for (String name : groupBy.split(",")) {
+            String dimension = DIMENSIONS.keySet().stream()
+                    .filter(key -> key.equalsIgnoreCase(name.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Unsupported groupBy: " + name.trim()));
+            dimensions.add(dimension);
+        }
+        if (dimensions.size() > 2) {
+            throw new RuntimeException("At most two groupBy dimensions are supported");
+        }
+        return dimensions;
+    }
+
+    /**
+     * Turns a group key back into readable values, one per dimension.
+     */
+    private static List<String> labels(long key, List<Dimension> dimensions, Map<Integer, String> names, List<String> manufacturers) {
+        List<String> labels = new ArrayList<>(dimensions.size());
+        labels.add(label(dimensions.get(0), (int) (key >> 32), names, manufacturers));
+        if (dimensions.size() > 1) {
+            labels.add(label(dimensions.get(1), (int) key, names, manufacturers));
+        }
+        return labels;
+    }
+
+    private static String label(Dimension dimension, int value, Map<Integer, String> names, List<String> manufacturers) {
+        return switch (dimension) {
+            case MEDICATION -> names.getOrDefault(value, "Unknown Medication");
+            case MANUFACTURER -> value >= 0 ? manufacturers.get(value) : "Unknown Manufacturer";
+            case CUSTOMER -> value == SalesColumnStore.NO_CUSTOMER ? "Unknown Customer" : String.valueOf(value);
+            case YEAR -> String.valueOf(value);
+            case MONTH -> YearMonth.of(Math.floorDiv(value, 12), Math.floorMod(value, 12) + 1).toString();
+            case DAY -> LocalDate.ofEpochDay(value).toString();
+            case DAY_OF_WEEK -> DayOfWeek.of(value).name();
+            case HOUR -> String.format("%02d", value);
+        };
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.controller.dto.report.RevenueReportDto;
+import com.example.pharmacy.controller.dto.report.RevenueRowDto;
+import com.example.pharmacy.controller.dto.report.TopSellerDto;
+import com.example.pharmacy.controller.dto.report.TopSellersDto;
+import com.example.pharmacy.infrastructure.entity.SalesDailyCustomerId;
+import com.example.pharmacy.infrastructure.entity.SalesDailyRollupId;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import com.example.pharmacy.infrastructure.entity.SalesEntity;
+import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.SaleArchiveRepository;
+import com.example.pharmacy.repository.SaleRepository;
+import com.example.pharmacy.repository.SalesDailyCustomerRepository;
+import com.example.pharmacy.repository.SalesDailyRollupRepository;
+import com.example.pharmacy.service.analytics.SalesColumnStore;
+import com.example.pharmacy.service.report.TopSellerTracker;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service maintaining the daily sales rollup, the top seller tracker and the analytics column store,
+ * and answering reports from the first two.
+ * Sales are added to the rollup in the transaction that saves them and removed in the one that deletes them,
+ * so reports never scan the sales table. Distinct customers are counted through a marker row per day,
+ * medication and customer, whose creation and removal decide atomically whether a customer is new.
+ */
+@Service
+public class SalesReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesReportService.class);
+
+    /** Number of days reported when no range is given. */
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    /** Rows are locked in this order, so concurrent sales cannot deadlock on the rollup. */
+    private static final Comparator<SalesDailyRollupId> KEY_ORDER =
+            Comparator.comparing(SalesDailyRollupId::getDay).thenComparingInt(SalesDailyRollupId::getMedicationId);
+
+    /** Customer markers are locked in this order, and before any rollup row. */
+    private static final Comparator<SalesDailyCustomerId> CUSTOMER_KEY_ORDER =
+            Comparator.comparing(SalesDailyCustomerId::getDay)
+                    .thenComparingInt(SalesDailyCustomerId::getMedicationId)
+                    .thenComparingInt(SalesDailyCustomerId::getCustomerId);
+
+    private final SalesDailyRollupRepository rollupRepository;
+    private final SalesDailyCustomerRepository customerRepository;
+    private final SaleRepository saleRepository;
+    private final SaleArchiveRepository archiveRepository;
+    private final DrugRepository drugRepository;
+    private final TopSellerTracker topSellerTracker;
+    private final SalesColumnStore columnStore;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructs the service.
+     *
+     * @param rollupRepository   repository of the daily rollup
+     * @param customerRepository repository of the markers behind the distinct customer counts
+     * @param saleRepository     repository of the sales, used to replay recent sales
+     * @param archiveRepository  repository of the archived sales, checked before rebuilding from an empty rollup
+     * @param drugRepository     repository of the medication names
+     * @param topSellerTracker   tracker of the best sellers of the last hour, day and week
+     * @param columnStore        column store of the sales analytics
+     * @param transactionManager transaction manager for the startup rebuild
+     */
+    @Autowired
+    public SalesReportService(
+            SalesDailyRollupRepository rollupRepository,
+            SalesDailyCustomerRepository customerRepository,
+            SaleRepository saleRepository,
+            SaleArchiveRepository archiveRepository,
+            DrugRepository drugRepository,
+            TopSellerTracker topSellerTracker,
+            SalesColumnStore columnStore,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.customerRepository = customerRepository;
+        this.saleRepository = saleRepository;
+        this.archiveRepository = archiveRepository;
+        this.drugRepository = drugRepository;
+        this.topSellerTracker = topSellerTracker;
+        this.columnStore = columnStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Loads the report state from the stored sales. Runs before the application accepts requests,
+     * so no sale can be counted twice.
+     */
+    @PostConstruct
+    public void initialize() {
+        rebuildRollupIfEmpty();
+        rebuildTopSellers();
+    }
+
+    /**
+     * Fills an empty rollup and empty customer markers from the existing sales, so reports cover the sales
+     * made before they existed.
+     */
+    public void rebuildRollupIfEmpty() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (saleRepository.count() == 0 && archiveRepository.count() == 0) {
+                return;
+            }
+            if (rollupRepository.count() == 0) {
+                int rows = rollupRepository.rebuildFromSales();
+                logger.info("Built the daily sales rollup from existing sales: {} rows", rows);
+            }
+            if (customerRepository.count() == 0) {
+                int rows = customerRepository.rebuildFromSales();
+                logger.info("Built the daily customer markers from existing sales: {} rows", rows);
+            }
+        });
+    }
+
+    /**
+     * Replays the sales of the longest top seller window into a cleared tracker, oldest first.
+     */
+    public void rebuildTopSellers() {
+        var since = Timestamp.from(Instant.now().minus(TopSellerTracker.Window.WEEK.length()));
+        transactionTemplate.executeWithoutResult(status -> {
+            topSellerTracker.clear();
+            try (Stream<SaleRepository.SaleVolume> sales = saleRepository.streamVolumesSince(since)) {
+                sales.forEach(sale -> topSellerTracker.add(
+                        sale.getMedicationId(), sale.getQuantity(), sale.getSaleDate().getTime()));
+            }
+        });
+    }
+
+    /**
+     * Adds sales to the rollup. Must be called in the transaction that saves the sales.
+     * A customer counts as new for a medication and day if this call creates the customer's marker;
+     * a concurrent sale creating the same marker makes this call wait for it and then not count the customer.
+     *
+     * @param sales the sales being saved
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<SalesEntity> sales) {
+        Map<SalesDailyRollupId, Totals> totals = new TreeMap<>(KEY_ORDER);
+        Map<SalesDailyCustomerId, Integer> purchases = new TreeMap<>(CUSTOMER_KEY_ORDER);
+
+        for (SalesEntity sale : sales) {
+            if (sale.getMedicationId() == null || sale.getSaleDate() == null) {
+                continue;
+            }
+            LocalDate day = sale.getSaleDate().toLocalDateTime().toLocalDate();
+            totals.computeIfAbsent(new SalesDailyRollupId(Date.valueOf(day), sale.getMedicationId()), key -> new Totals())
+                    .add(sale.getQuantity(), sale.getTotalPrice());
+            topSellerTracker.recordSale(sale.getMedicationId(), sale.getQuantity(), sale.getSaleDate().getTime());
+            columnStore.appendAfterCommit(
+                    sale.getMedicationId(),
+                    sale.getCustomerId() == null ? SalesColumnStore.NO_CUSTOMER : sale.getCustomerId(),
+                    sale.getSaleDate().getTime(),
+                    SalesColumnStore.toCents(sale.getTotalPrice()),
+                    sale.getQuantity()
+            );
+            if (sale.getCustomerId() != null) {
+                purchases.merge(
+                        new SalesDailyCustomerId(Date.valueOf(day), sale.getMedicationId(), sale.getCustomerId()),
+                        1,
+                        Integer::sum
+                );
+            }
+        }
+
+        purchases.forEach((key, count) -> {
+            if (customerRepository.insertIfAbsent(key.getDay(), key.getMedicationId(), key.getCustomerId(), count) == 1) {
+                totals.get(new SalesDailyRollupId(key.getDay(), key.getMedicationId())).customers++;
+            } else {
+                customerRepository.addPurchases(key.getDay(), key.getMedicationId(), key.getCustomerId(), count);
+            }
+        });
+
+        totals.forEach((key, total) ->
+                rollupRepository.add(key.getDay(), key.getMedicationId(), total.units, total.revenue, total.customers));
+    }
+
+    /**
+     * Removes a sale from the rollup. Must be called in the transaction that deletes the sale.
+     * The customer stops counting for the medication and day when this removes the customer's marker.
+     *
+     * @param sale the sale being deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void retract(SalesEntity sale) {
+        if (sale.getMedicationId() == null || sale.getSaleDate() == null) {
+            return;
+        }
+        LocalDate day = sale.getSaleDate().toLocalDateTime().toLocalDate();
+        Date rollupDay = Date.valueOf(day);
+
+        int customers = 0;
+        if (sale.getCustomerId() != null) {
+            customerRepository.addPurchases(rollupDay, sale.getMedicationId(), sale.getCustomerId(), -1);
+            customers = customerRepository.deleteIfEmpty(rollupDay, sale.getMedicationId(), sale.getCustomerId());
+        }
+
+        BigDecimal revenue = sale.getTotalPrice() == null ? BigDecimal.ZERO : sale.getTotalPrice();
+        rollupRepository.subtract(rollupDay, sale.getMedicationId(), sale.getQuantity(), revenue, customers);
+        rollupRepository.deleteIfEmpty(rollupDay, sale.getMedicationId());
+        topSellerTracker.retractSale(sale.getMedicationId(), sale.getQuantity(), sale.getSaleDate().getTime());
+        columnStore.appendAfterCommit(
+                sale.getMedicationId(),
+                sale.getCustomerId() == null ? SalesColumnStore.NO_CUSTOMER : sale.getCustomerId(),
+                sale.getSaleDate().getTime(),
+                -SalesColumnStore.toCents(sale.getTotalPrice()),
+                -sale.getQuantity()
+        );
+    }
+
+    /**
+     * Reports units and revenue within a date range.
+     *
+     * @param from    first day, inclusive; defaults to 30 days before {@code to}
+     * @param to      last day, inclusive; defaults to today
+     * @param groupBy one of {@code day}, {@code week}, {@code month} or {@code medication}
+     * @return the revenue report
+     * @throws RuntimeException if the range is reversed or the grouping is not supported
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public RevenueReportDto getRevenue(LocalDate from, LocalDate to, String groupBy) {
+        LocalDate last = to != null ? to : LocalDate.now();
+        LocalDate first = from != null ? from : last.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (first.isAfter(last)) {
+            throw new RuntimeException("from must not be after to");
+        }
+
+        String grouping = groupBy == null ? "day" : groupBy.toLowerCase(Locale.ROOT);
+        List<RevenueRowDto> rows = switch (grouping) {
+            case "day" -> sumByPeriod(first, last, UnaryOperator.identity());
+            case "week" -> sumByPeriod(first, last, day -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            case "month" -> sumByPeriod(first, last, day -> day.withDayOfMonth(1));
+            case "medication" -> rollupRepository.sumByMedication(Date.valueOf(first), Date.valueOf(last)).stream()
+                    .map(row -> new RevenueRowDto(
+                            null,
+                            row.getMedicationId(),
+                            row.getMedicationName(),
+                            row.getUnits(),
+                            row.getRevenue(),
+                            row.getCustomers()
+                    ))
+                    .toList();
+            default -> throw new RuntimeException("Unsupported groupBy: " + groupBy);
+        };
+
+        long totalUnits = rows.stream().mapToLong(RevenueRowDto::getUnits).sum();
+        BigDecimal totalRevenue = rows.stream().map(RevenueRowDto::getRevenue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new RevenueReportDto(first, last, grouping, rows, totalUnits, totalRevenue);
+    }
+
+    /**
+     * Returns the best-selling medications of the last hour, day and week.
+     * Answered from the in-memory tracker, so the cost does not depend on the number of sales.
+     *
+     * @param limit maximum number of medications per window
+     * @return the best sellers per window, with estimated units sold
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public TopSellersDto getTopSellers(int limit) {
+        var hour = topSellerTracker.top(TopSellerTracker.Window.HOUR, limit);
+        var day = topSellerTracker.top(TopSellerTracker.Window.DAY, limit);
+        var week = topSellerTracker.top(TopSellerTracker.Window.WEEK, limit);
+
+        Set<Integer> ids = new HashSet<>();
+        Stream.of(hour, day, week).flatMap(List::stream).forEach(seller -> ids.add(seller.medicationId()));
+        Map<Integer, String> names = drugRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(MedicationsEntity::getId, MedicationsEntity::getName));
+
+        return new TopSellersDto(withNames(hour, names), withNames(day, names), withNames(week, names));
+    }
+
+    /**
+     * Maps tracker entries to DTOs with medication names.
+     *
+     * @param sellers the tracker entries
+     * @param names   medication names by ID
+     * @return the DTOs in the same order
+     */
+    private static List<TopSellerDto> withNames(List<TopSellerTracker.TopSeller> sellers, Map<Integer, String> names) {
+        return sellers.stream()
+                .map(seller -> new TopSellerDto(
+                        seller.medicationId(),
+                        names.getOrDefault(seller.medicationId(), "Unknown Medication"),
+                        seller.units()
+                ))
+                .toList();
+    }
+
+    /**
+     * Sums the daily totals into periods.
+     *
+     * @param first    first day, inclusive
+     * @param last     last day, inclusive
+     * @param periodOf maps a day to the first day of its period
+     * @return one line per period with sales, oldest first
+     */
+    private List<RevenueRowDto> sumByPeriod(LocalDate first, LocalDate last, UnaryOperator<LocalDate> periodOf) {
+        Map<LocalDate, Totals> periods = new LinkedHashMap<>();
+        for (var daily : rollupRepository.sumByDay(Date.valueOf(first), Date.valueOf(last))) {
+            Totals total = periods.computeIfAbsent(periodOf.apply(daily.getDay().toLocalDate()), key -> new Totals());
+            total.add(daily.getUnits(), daily.getRevenue());
+            total.customers += daily.getCustomers();
+        }
+        return periods.entrySet().stream()
+                .map(entry -> new RevenueRowDto(
+                        entry.getKey(),
+                        null,
+                        null,
+                        entry.getValue().units,
+                        entry.getValue().revenue,
+                        entry.getValue().customers
+                ))
+                .toList();
+    }
+
+    /**
+     * Running totals of a rollup row or report line.
+     */
+    private static final class Totals {
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private int customers;
+
+        private void add(long units, BigDecimal revenue) {
+            this.units += units;
+            if (revenue != null) {
+                this.revenue = this.revenue.add(revenue);
+            }
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.pharmacy.service;
 
+import com.example.pharmacy.controller.dto.CheckoutItemDto;
+import com.example.pharmacy.controller.dto.CheckoutRequestDto;
+import com.example.pharmacy.controller.dto.drug.DrugStockChangeDto;
 import com.example.pharmacy.controller.dto.sale.CreateSaleDto;
+import com.example.pharmacy.controller.dto.sale.CreateSaleResponseDto;
 import com.example.pharmacy.controller.dto.user.*;
 import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
 import com.example.pharmacy.infrastructure.entity.UserEntity;
 import com.example.pharmacy.repository.IUserRepository;
 import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.service.cache.DrugCatalogCache;
+import com.example.pharmacy.service.sync.CatalogChangeTracker;
+import com.example.pharmacy.service.sync.DrugChangeBroadcaster;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -27,6 +39,10 @@ public class UserService {
     private final DrugRepository drugRepository;
     private final PasswordEncoder passwordEncoder;
     private final SaleService saleService;
+    private final DrugCatalogCache catalogCache;
+    private final BalanceLedgerService balanceLedgerService;
+    private final CatalogChangeTracker changeTracker;
+    private final DrugChangeBroadcaster changeBroadcaster;
 
     /**
      * Constructs a UserService with necessary dependencies.
@@ -35,18 +51,30 @@ public class UserService {
      * @param drugRepository   repository for medications
      * @param passwordEncoder  encoder for secure password storage
      * @param saleService      service to record sales
+     * @param catalogCache     drug catalog cache, invalidated when stock changes
+     * @param balanceLedgerService ledger holding user balances
+     * @param changeTracker    source of catalog change versions for stock updates
+     * @param changeBroadcaster pushes stock changes to stream subscribers
      */
     @Autowired
     public UserService(
             IUserRepository userRepository,
             DrugRepository drugRepository,
             PasswordEncoder passwordEncoder,
-            SaleService saleService
+            SaleService saleService,
+            DrugCatalogCache catalogCache,
+            BalanceLedgerService balanceLedgerService,
+            CatalogChangeTracker changeTracker,
+            DrugChangeBroadcaster changeBroadcaster
     ) {
         this.userRepository = userRepository;
         this.drugRepository = drugRepository;
         this.passwordEncoder = passwordEncoder;
         this.saleService = saleService;
+        this.catalogCache = catalogCache;
+        this.balanceLedgerService = balanceLedgerService;
+        this.changeTracker = changeTracker;
+        this.changeBroadcaster = changeBroadcaster;
     }
 
     /**
@@ -59,7 +87,18 @@ public class UserService {
     public UserResponseDto getUser(Long id) {
         var user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return new UserResponseDto(user.getId(), user.getUsername(), user.getRole(), user.getBalance());
+        return toResponse(user, balanceLedgerService.getBalance(user.getId()));
+    }
+
+    /**
+     * Retrieves the currently authenticated user.
+     *
+     * @param principal authenticated user principal
+     * @return user response DTO
+     */
+    public UserResponseDto getCurrentUser(Principal principal) {
+        var user = getUserByPrincipal(principal);
+        return toResponse(user, balanceLedgerService.getBalance(user.getId()));
     }
 
     /**
@@ -68,6 +107,7 @@ public class UserService {
      * @param dto user creation request
      * @return newly created user response
      */
+    @Transactional
     public CreateUserResponseDto createUser(CreateUserRequestDto dto) {
         var user = new UserEntity();
         user.setUsername(dto.getUsername());
@@ -75,17 +115,23 @@ public class UserService {
         user.setRole(dto.getRole() != null ? dto.getRole() : "CUSTOMER");
         user.setBalance(BigDecimal.ZERO);
         userRepository.save(user);
+        balanceLedgerService.openAccount(user);
         return new CreateUserResponseDto(user.getId(), user.getUsername());
     }
 
     /**
      * Processes a medication purchase by a user.
+     * Stock is taken with a single conditional update, so concurrent purchases of the
+     * same medication cannot oversell it; a failed purchase rolls back as a whole.
+     * Like {@link #checkout}, it locks the medication row before the user's balance snapshot,
+     * so a purchase and a checkout by the same user cannot deadlock.
      *
      * @param principal     authenticated user principal
      * @param medicationId  ID of the medication to buy
      * @param quantity      number of units to buy
      */
     @PreAuthorize("hasRole('CUSTOMER')")
+    @Transactional
     public void buyMedication(Principal principal, Long medicationId, int quantity) {
         var user = getUserByPrincipal(principal);
         MedicationsEntity drug = drugRepository.findById(medicationId)
@@ -95,21 +141,20 @@ public class UserService {
             throw new RuntimeException("Quantity must be at least 1");
         }
 
-        if (drug.getStockQuantity() < quantity) {
-            throw new RuntimeException("Not enough stock available");
-        }
-
         BigDecimal totalPrice = drug.getPrice().multiply(BigDecimal.valueOf(quantity));
 
-        if (totalPrice.compareTo(user.getBalance()) > 0) {
-            throw new RuntimeException("Insufficient funds");
+        long version = changeTracker.nextVersion();
+        if (drugRepository.decrementStock(drug.getId(), quantity, version) == 0) {
+            throw new RuntimeException("Not enough stock available");
         }
-
-        user.setBalance(user.getBalance().subtract(totalPrice));
-        userRepository.save(user);
-
-        drug.setStockQuantity(drug.getStockQuantity() - quantity);
-        drugRepository.save(drug);
+        balanceLedgerService.requireFunds(user.getId(), totalPrice);
+        catalogCache.invalidate();
+        changeBroadcaster.publish(new DrugStockChangeDto(
+                drug.getId(),
+                drugRepository.findStockQuantity(drug.getId()),
+                drug.getPrice(),
+                version
+        ));
 
         CreateSaleDto saleDto = new CreateSaleDto();
         saleDto.setCustomerId(user.getId().intValue());
@@ -117,7 +162,88 @@ public class UserService {
         saleDto.setQuantity(quantity);
         saleDto.setTotalPrice(totalPrice);
 
-        saleService.create(saleDto);
+        var sale = saleService.create(saleDto);
+        balanceLedgerService.recordPurchases(user.getId(), Map.of(sale.getId(), totalPrice));
+    }
+
+    /**
+     * Checks out a whole cart in a single transaction.
+     * The medications are locked in ID order and then the user's balance snapshot, the same order as
+     * {@link #buyMedication}; the balance is charged once for the cart total, and all sales are inserted together. Either every line is bought or none is.
+     *
+     * @param principal authenticated user principal
+     * @param dto       cart lines to buy
+     * @return the recorded sales
+     */
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @Transactional
+    public List<CreateSaleResponseDto> checkout(Principal principal, CheckoutRequestDto dto) {
+        if (dto.getItems() == null || dto.getItems().isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
+        // Merge repeated lines so each medication is locked and charged once
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (CheckoutItemDto item : dto.getItems()) {
+            if (item.getMedicationId() == null) {
+                throw new RuntimeException("Medication ID is required");
+            }
+            if (item.getQuantity() <= 0) {
+                throw new RuntimeException("Quantity must be at least 1");
+            }
+            quantities.merge(item.getMedicationId().intValue(), item.getQuantity(), Integer::sum);
+        }
+
+        var user = getUserByPrincipal(principal);
+        List<MedicationsEntity> drugs = drugRepository.findAllByIdForUpdate(quantities.keySet());
+
+        if (drugs.size() != quantities.size()) {
+            throw new RuntimeException("Medication not found");
+        }
+
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        List<CreateSaleDto> sales = new ArrayList<>();
+
+        for (MedicationsEntity drug : drugs) {
+            int quantity = quantities.get(drug.getId());
+
+            if (drug.getStockQuantity() < quantity) {
+                throw new RuntimeException("Not enough stock available for " + drug.getName());
+            }
+
+            BigDecimal linePrice = drug.getPrice().multiply(BigDecimal.valueOf(quantity));
+            totalPrice = totalPrice.add(linePrice);
+            drug.setStockQuantity(drug.getStockQuantity() - quantity);
+            drug.setChangeVersion(changeTracker.nextVersion());
+
+            CreateSaleDto saleDto = new CreateSaleDto();
+            saleDto.setCustomerId(user.getId().intValue());
+            saleDto.setMedicationId(drug.getId());
+            saleDto.setQuantity(quantity);
+            saleDto.setTotalPrice(linePrice);
+            sales.add(saleDto);
+        }
+
+        balanceLedgerService.requireFunds(user.getId(), totalPrice);
+
+        drugRepository.saveAll(drugs);
+        catalogCache.invalidate();
+        for (MedicationsEntity drug : drugs) {
+            changeBroadcaster.publish(new DrugStockChangeDto(
+                    drug.getId(),
+                    drug.getStockQuantity(),
+                    drug.getPrice(),
+                    drug.getChangeVersion()
+            ));
+        }
+
+        List<CreateSaleResponseDto> created = saleService.createAll(sales);
+        Map<Integer, BigDecimal> charges = new LinkedHashMap<>();
+        for (CreateSaleResponseDto sale : created) {
+            charges.put(sale.getId(), sale.getTotalPrice());
+        }
+        balanceLedgerService.recordPurchases(user.getId(), charges);
+        return created;
     }
 
     /**
@@ -160,8 +286,7 @@ public class UserService {
             throw new RuntimeException("Amount must be positive");
         }
 
-        user.setBalance(user.getBalance().add(dto.getAmount()));
-        userRepository.save(user);
+        balanceLedgerService.recordDeposit(user.getId(), dto.getAmount());
     }
 
     /**
@@ -172,7 +297,7 @@ public class UserService {
      * @param cvc        3-digit CVC
      * @return true if card details are valid
      */
-    private boolean isValidCard(String cardNumber, String expiryDate, String cvc) {
+    static boolean isValidCard(String cardNumber, String expiryDate, String cvc) {
         return cardNumber != null && cardNumber.matches("\\d{16}") &&
                 expiryDate != null && expiryDate.matches("(0[1-9]|1[0-2])/\\d{2}") &&
                 cvc != null && cvc.matches("\\d{3}");
@@ -186,13 +311,10 @@ public class UserService {
      */
     @PreAuthorize("hasRole('ADMIN')")
     public List<UserResponseDto> getUsersByRole(String role) {
-        return userRepository.findByRole(role).stream()
-                .map(user -> new UserResponseDto(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getRole(),
-                        user.getBalance()
-                ))
+        var users = userRepository.findByRole(role);
+        var balances = balanceLedgerService.getBalances(users);
+        return users.stream()
+                .map(user -> toResponse(user, balances.get(user.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -213,4 +335,15 @@ public class UserService {
 
         userRepository.save(user);
     }
+
+    /**
+     * Maps a user entity and its current balance to the response DTO.
+     *
+     * @param user    the user entity
+     * @param balance the user's current balance
+     * @return user response DTO
+     */
+    private UserResponseDto toResponse(UserEntity user, BigDecimal balance) {
+        return new UserResponseDto(user.getId(), user.getUsername(), user.getRole(), balance);
+    }
 }
@@ -0,0 +1,402 @@
+package com.example.pharmacy.service.analytics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Append-only, column-oriented copy of the sales for ad-hoc analytics.
+ * Each sale takes 28 bytes in five primitive columns, stored in fixed-size chunks so the store grows
+ * without copying and wastes at most one partly filled chunk; 50 million sales fit in about 1.4 GB.
+ * Queries filter and group the rows with one parallel scan task per chunk and merge the partial groups.
+ * A single writer appends while any number of readers scan: a row is written before the row count is
+ * published, and readers only look at rows below the count they read.
+ * Deleted sales are cancelled by appending a row with negated quantity and amount.
+ */
+@Component
+public class SalesColumnStore {
+
+    /** Marker for a missing customer. */
+    public static final int NO_CUSTOMER = -1;
+
+    /** Rows per chunk; a power of two so row positions split with shifts. */
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /** Granularity of the local time cache; every time zone offset is a multiple of 15 minutes. */
+    private static final long QUARTER_HOUR_MILLIS = 15 * 60 * 1000L;
+
+    /**
+     * Attributes a query can group by.
+     */
+    public enum Dimension {
+        MEDICATION, MANUFACTURER, CUSTOMER, YEAR, MONTH, DAY, DAY_OF_WEEK, HOUR
+    }
+
+    /**
+     * Filter and grouping of a query.
+     *
+     * @param groupBy        one or two dimensions to group by
+     * @param fromMillis     start of the sale time range, inclusive
+     * @param toMillis       end of the sale time range, exclusive
+     * @param medications    medications to include, indexed by ID; null to include all
+     * @param customerId     the only customer to include, or {@link #NO_CUSTOMER} to include all
+     * @param manufacturerOf manufacturer index per medication ID, -1 if unknown; needed to group by manufacturer
+     * @param zone           time zone of the time dimensions
+     */
+    public record Query(
+            List<Dimension> groupBy,
+            long fromMillis,
+            long toMillis,
+            boolean[] medications,
+            int customerId,
+            int[] manufacturerOf,
+            ZoneId zone
+    ) {
+    }
+
+    /**
+     * Totals of one group.
+     */
+    public static final class Totals {
+        private long units;
+        private long cents;
+        private long sales;
+
+        /**
+         * Gets the units sold.
+         * @return the units
+         */
+        public long getUnits() {
+            return units;
+        }
+
+        /**
+         * Gets the revenue in cents.
+         * @return the revenue in cents
+         */
+        public long getCents() {
+            return cents;
+        }
+
+        /**
+         * Gets the number of sales.
+         * @return the sales
+         */
+        public long getSales() {
+            return sales;
+        }
+
+    }
+
+    /**
+     * Groups found by a query.
+     *
+     * @param groups      totals per group key; a key holds the first dimension in its upper and the second in its lower 32 bits
+     * @param rowsScanned number of rows the scan looked at
+     */
+    public record Result(Map<Long, Totals> groups, long rowsScanned) {
+    }
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile long size;
+
+    /**
+     * Converts a sale total to cents.
+     *
+     * @param amount the amount, or null
+     * @return the amount in cents, rounded half up; 0 for null
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Appends a sale. Inside a transaction the row is only added after commit.
+     *
+     * @param medicationId the ID of the medication
+     * @param customerId   the ID of the customer, or {@link #NO_CUSTOMER}
+     * @param timeMillis   the time of the sale
+     * @param cents        the total price in cents
+     * @param quantity     the number of units
+     */
+    public void appendAfterCommit(int medicationId, int customerId, long timeMillis, long cents, int quantity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(medicationId, customerId, timeMillis, cents, quantity);
+                }
+            });
+        } else {
+            append(medicationId, customerId, timeMillis, cents, quantity);
+        }
+    }
+
+    /**
+     * Appends a sale immediately. A negative quantity and amount cancel an earlier sale.
+     *
+     * @param medicationId the ID of the medication
+     * @param customerId   the ID of the customer, or {@link #NO_CUSTOMER}
+     * @param timeMillis   the time of the sale
+     * @param cents        the total price in cents
+     * @param quantity     the number of units
+     */
+    public synchronized void append(int medicationId, int customerId, long timeMillis, long cents, int quantity) {
+        long row = size;
+        int chunkIndex = (int) (row >>> CHUNK_SHIFT);
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[chunkIndex] = new Chunk();
+            chunks = current;
+        }
+
+        Chunk chunk = current[chunkIndex];
+        int offset = (int) (row & CHUNK_MASK);
+        chunk.medicationIds[offset] = medicationId;
+        chunk.customerIds[offset] = customerId;
+        chunk.saleTimes[offset] = timeMillis;
+        chunk.cents[offset] = cents;
+        chunk.quantities[offset] = quantity;
+        size = row + 1;
+    }
+
+    /**
+     * Removes all rows, before a reload from the database.
+     */
+    public synchronized void clear() {
+        chunks = new Chunk[0];
+        size = 0;
+    }
+
+    /**
+     * Gets the number of stored rows, including cancelling rows.
+     * @return the row count
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets the heap taken by the column arrays.
+     * @return the allocated bytes
+     */
+    public long allocatedBytes() {
+        return (long) chunks.length * CHUNK_SIZE * Chunk.BYTES_PER_ROW;
+    }
+
+    /**
+     * Filters and groups the stored sales.
+     *
+     * @param query the filter and grouping
+     * @return totals per group
+     */
+    public Result query(Query query) {
+        long rows = size;
+        Chunk[] snapshot = chunks;
+        int chunkCount = (int) ((rows + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+
+        GroupTable groups = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(index -> scan(
+                        snapshot[index],
+                        (int) Math.min(CHUNK_SIZE, rows - ((long) index << CHUNK_SHIFT)),
+                        query))
+                .reduce(GroupTable::merge)
+                .orElseGet(GroupTable::new);
+        return new Result(groups.toMap(), rows);
+    }
+
+    /**
+     * Filters and groups the first rows of one chunk.
+     */
+    private static GroupTable scan(Chunk chunk, int rows, Query query) {
+        GroupTable groups = new GroupTable();
+        LocalTimeCache time = new LocalTimeCache(query.zone());
+        Dimension first = query.groupBy().get(0);
+        Dimension second = query.groupBy().size() > 1 ? query.groupBy().get(1) : null;
+
+        for (int i = 0; i < rows; i++) {
+            long saleTime = chunk.saleTimes[i];
+            if (saleTime < query.fromMillis() || saleTime >= query.toMillis()) {
+                continue;
+            }
+            int medicationId = chunk.medicationIds[i];
+            if (query.medications() != null
+                    && (medicationId < 0 || medicationId >= query.medications().length || !query.medications()[medicationId])) {
+                continue;
+            }
+            if (query.customerId() != NO_CUSTOMER && chunk.customerIds[i] != query.customerId()) {
+                continue;
+            }
+
+            long key = (long) keyOf(first, chunk, i, query, time) << 32;
+            if (second != null) {
+                key |= keyOf(second, chunk, i, query, time) & 0xffffffffL;
+            }
+            int quantity = chunk.quantities[i];
+            groups.add(key, quantity, chunk.cents[i], quantity < 0 ? -1 : 1);
+        }
+        return groups;
+    }
+
+    /**
+     * Computes the group key of a row for one dimension.
+     */
+    private static int keyOf(Dimension dimension, Chunk chunk, int row, Query query, LocalTimeCache time) {
+        return switch (dimension) {
+            case MEDICATION -> chunk.medicationIds[row];
+            case CUSTOMER -> chunk.customerIds[row];
+            case MANUFACTURER -> {
+                int medicationId = chunk.medicationIds[row];
+                int[] manufacturerOf = query.manufacturerOf();
+                yield medicationId >= 0 && medicationId < manufacturerOf.length ? manufacturerOf[medicationId] : -1;
+            }
+            case YEAR -> time.at(chunk.saleTimes[row]).date.getYear();
+            case MONTH -> {
+                LocalDate date = time.at(chunk.saleTimes[row]).date;
+                yield date.getYear() * 12 + date.getMonthValue() - 1;
+            }
+            case DAY -> (int) time.at(chunk.saleTimes[row]).date.toEpochDay();
+            case DAY_OF_WEEK -> time.at(chunk.saleTimes[row]).date.getDayOfWeek().getValue();
+            case HOUR -> time.at(chunk.saleTimes[row]).hour;
+        };
+    }
+
+    /**
+     * Columns of up to {@link #CHUNK_SIZE} rows.
+     */
+    private static final class Chunk {
+        private static final int BYTES_PER_ROW = Integer.BYTES * 3 + Long.BYTES * 2;
+
+        private final int[] medicationIds = new int[CHUNK_SIZE];
+        private final int[] customerIds = new int[CHUNK_SIZE];
+        private final long[] saleTimes = new long[CHUNK_SIZE];
+        private final long[] cents = new long[CHUNK_SIZE];
+        private final int[] quantities = new int[CHUNK_SIZE];
+    }
+
+    /**
+     * Open-addressing hash table of group totals keyed by a primitive long, so the scan loop
+     * neither boxes keys nor allocates per row.
+     */
+    private static final class GroupTable {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] units = new long[INITIAL_CAPACITY];
+        private long[] cents = new long[INITIAL_CAPACITY];
+        private long[] sales = new long[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(long key, long unitCount, long centCount, long saleCount) {
+            int slot = slotOf(key);
+            units[slot] += unitCount;
+            cents[slot] += centCount;
+            sales[slot] += saleCount;
+        }
+
+        private int slotOf(long key) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                return slotOf(key);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldUnits = units;
+            long[] oldCents = cents;
+            long[] oldSales = sales;
+            boolean[] oldUsed = used;
+
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            units = new long[capacity];
+            cents = new long[capacity];
+            sales = new long[capacity];
+            used = new boolean[capacity];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldUsed[slot]) {
+                    add(oldKeys[slot], oldUnits[slot], oldCents[slot], oldSales[slot]);
+                }
+            }
+        }
+
+        private GroupTable merge(GroupTable other) {
+            GroupTable larger = size >= other.size ? this : other;
+            GroupTable smaller = larger == this ? other : this;
+            for (int slot = 0; slot < smaller.keys.length; slot++) {
+                if (smaller.used[slot]) {
+                    larger.add(smaller.keys[slot], smaller.units[slot], smaller.cents[slot], smaller.sales[slot]);
+                }
+            }
+            return larger;
+        }
+
+        private Map<Long, Totals> toMap() {
+            Map<Long, Totals> groups = new HashMap<>(size * 2);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (used[slot]) {
+                    Totals totals = new Totals();
+                    totals.units = units[slot];
+                    totals.cents = cents[slot];
+                    totals.sales = sales[slot];
+                    groups.put(keys[slot], totals);
+                }
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * Local date and hour of the last quarter hour seen. Sales are mostly stored in time order,
+     * so consecutive rows rarely need a new time zone conversion.
+     */
+    private static final class LocalTimeCache {
+        private final ZoneId zone;
+        private long quarter = Long.MIN_VALUE;
+        private LocalDate date;
+        private int hour;
+
+        private LocalTimeCache(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        private LocalTimeCache at(long millis) {
+            long current = Math.floorDiv(millis, QUARTER_HOUR_MILLIS);
+            if (current != quarter) {
+                LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+                date = local.toLocalDate();
+                hour = local.getHour();
+                quarter = current;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.pharmacy.service.archive;
+
+import com.example.pharmacy.repository.SaleArchiveRepository;
+import com.example.pharmacy.repository.SaleRepository;
+import com.example.pharmacy.service.report.TopSellerTracker;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Background job moving sales older than the archive horizon from the {@code sales} table to {@code sales_archive}.
+ * Rows are moved oldest first in small chunks; each chunk is copied and deleted in its own transaction,
+ * so a sale is always in exactly one of the two tables and the locks on {@code sales} stay short.
+ * <p>
+ * The archiver also tracks the archive watermark: every archived sale is older than it.
+ * Read paths use the watermark to skip the archive when the range they ask for is newer.
+ * The daily rollup and the analytics store are not touched by a move, since the sale still exists.
+ */
+@Component
+public class SalesArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesArchiver.class);
+
+    /** Shortest allowed horizon; the top seller tracker replays the last week from the sales table. */
+    private static final Duration MIN_HORIZON = TopSellerTracker.Window.WEEK.length();
+
+    private final SaleRepository saleRepository;
+    private final SaleArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    /** Sales older than this may be archived; null while the archive is empty. */
+    private volatile Timestamp watermark;
+
+    /**
+     * Creates the archiver.
+     *
+     * @param saleRepository     repository of the live sales
+     * @param archiveRepository  repository of the archived sales
+     * @param transactionManager transaction manager running each chunk in its own transaction
+     * @param horizon            age after which a sale is archived; configurable via `sales.archive.horizon`
+     * @param popularityWindow   window of the drug suggestion popularity, which reads only live sales;
+     *                           the horizon is raised to it if shorter
+     * @param batchSize          sales moved per chunk; configurable via `sales.archive.batch-size`
+     * @param maxBatchesPerRun   chunks moved per run before yielding; configurable via `sales.archive.max-batches-per-run`
+     */
+    @Autowired
+    public SalesArchiver(
+            SaleRepository saleRepository,
+            SaleArchiveRepository archiveRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sales.archive.horizon:365d}") Duration horizon,
+            @Value("${suggest.popularity-window:30d}") Duration popularityWindow,
+            @Value("${sales.archive.batch-size:1000}") int batchSize,
+            @Value("${sales.archive.max-batches-per-run:50}") int maxBatchesPerRun
+    ) {
+        this.saleRepository = saleRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Duration floor = popularityWindow.compareTo(MIN_HORIZON) > 0 ? popularityWindow : MIN_HORIZON;
+        if (horizon.compareTo(floor) < 0) {
+            logger.warn("Sales archive horizon {} is shorter than the live sales window {}, using {}", horizon, floor, floor);
+            horizon = floor;
+        }
+        this.horizon = horizon;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxBatchesPerRun = Math.max(maxBatchesPerRun, 1);
+    }
+
+    /**
+     * Loads the watermark from the newest archived sale. Runs before the application accepts requests.
+     */
+    @PostConstruct
+    public void initialize() {
+        Timestamp newest = archiveRepository.findMaxSaleDate();
+        watermark = newest == null ? null : new Timestamp(newest.getTime() + 1);
+    }
+
+    /**
+     * Moves sales older than the horizon to the archive, chunk after chunk, until none are left
+     * or the per-run limit is reached. The interval is configurable via `sales.archive.interval`.
+     */
+    @Scheduled(fixedDelayString = "${sales.archive.interval:3600000}")
+    public void archive() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(horizon));
+
+        int moved = 0;
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Integer> ids = saleRepository.findIdsSoldBefore(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                // Raised before the rows move, so readers never miss a row that is already in the archive
+                if (watermark == null || watermark.before(cutoff)) {
+                    watermark = cutoff;
+                }
+                archiveRepository.copyFromSales(ids, Timestamp.from(Instant.now()));
+                return saleRepository.deleteByIds(ids);
+            });
+            moved += count == null ? 0 : count;
+            if (count == null || count < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Archived {} sales older than {}", moved, cutoff);
+        }
+    }
+
+    /**
+     * Tells whether any sale has been archived.
+     *
+     * @return true if the archive may hold rows
+     */
+    public boolean hasArchive() {
+        return watermark != null;
+    }
+
+    /**
+     * Tells whether the archive may hold sales made at or before the given time.
+     *
+     * @param saleDate the time to check
+     * @return true if sales of that time may have been archived
+     */
+    public boolean mayHoldSalesUpTo(Timestamp saleDate) {
+        Timestamp current = watermark;
+        return current != null && saleDate.before(current);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.pharmacy.service.cache;
+
+import com.example.pharmacy.controller.dto.drug.GetDrugDto;
+import com.example.pharmacy.service.valueObjects.CatalogSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through in-memory cache of the drug catalog.
+ * Holds individual drugs by ID, bounded in size, and the full catalog list in a cache of its own,
+ * so reads by ID can never evict the list; both expire after a TTL. It also keeps a pre-encoded snapshot of the catalog that is rebuilt only when the catalog version changes.
+ * Every write to medications must call {@link #invalidate()}, which also bumps the version.
+ */
+@Component
+public class DrugCatalogCache {
+
+    /** Key under which the full catalog list is stored. */
+    private static final String ALL_KEY = "all";
+
+    private final Cache<Integer, GetDrugDto> drugs;
+    private final Cache<String, List<GetDrugDto>> catalog;
+    private final long ttlMillis;
+
+    /** Incremented by every invalidation; a snapshot is current only while its version matches. */
+    private final AtomicLong version = new AtomicLong();
+
+    /** Serializes snapshot builds so concurrent misses encode the catalog once. */
+    private final Object snapshotLock = new Object();
+
+    private volatile CatalogSnapshot snapshot;
+
+    /**
+     * Creates the cache with the configured bounds.
+     *
+     * @param maxSize maximum number of cached drugs; configurable via `catalog.cache.max-size`
+     * @param ttl     time after which an entry is reloaded; configurable via `catalog.cache.ttl`
+     */
+    public DrugCatalogCache(
+            @Value("${catalog.cache.max-size:1000}") long maxSize,
+            @Value("${catalog.cache.ttl:5m}") Duration ttl
+    ) {
+        this.drugs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.catalog = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Returns the current catalog version.
+     *
+     * @return the version
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Returns the encoded catalog, building it if the catalog changed or the snapshot is older than the TTL.
+     * A snapshot whose version changed while it was being built is returned but not kept.
+     *
+     * @param builder encodes the catalog for the given version
+     * @return the current snapshot
+     */
+    public CatalogSnapshot getSnapshot(Function<Long, CatalogSnapshot> builder) {
+        CatalogSnapshot current = snapshot;
+        if (isCurrent(current)) {
+            return current;
+        }
+        synchronized (snapshotLock) {
+            current = snapshot;
+            if (isCurrent(current)) {
+                return current;
+            }
+            long buildVersion = version.get();
+            CatalogSnapshot built = builder.apply(buildVersion);
+            if (version.get() == buildVersion) {
+                snapshot = built;
+            }
+            return built;
+        }
+    }
+
+    private boolean isCurrent(CatalogSnapshot current) {
+        return current != null
+                && current.getVersion() == version.get()
+                && System.currentTimeMillis() - current.getBuiltAt() < ttlMillis;
+    }
+
+    /**
+     * Returns the full catalog, loading it on a miss.
+     *
+     * @param loader loads the catalog from the database
+     * @return the cached catalog
+     */
+    public List<GetDrugDto> getAll(Supplier<List<GetDrugDto>> loader) {
+        return catalog.get(ALL_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Returns a single drug, loading it on a miss. Drugs that do not exist are not cached.
+     *
+     * @param id     the ID of the drug
+     * @param loader loads the drug from the database
+     * @return the cached drug, or empty if it does not exist
+     */
+    public Optional<GetDrugDto> getOne(int id, Function<Integer, Optional<GetDrugDto>> loader) {
+        return Optional.ofNullable(drugs.get(id, key -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Drops all cached entries and bumps the catalog version. When called inside a transaction, both
+     * happen again after commit so a concurrent read cannot re-cache the data from before the write.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        drugs.invalidateAll();
+        catalog.invalidateAll();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    drugs.invalidateAll();
+                    catalog.invalidateAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns hit and miss statistics since startup, over the drugs and the catalog list together.
+     *
+     * @return cache statistics
+     */
+    public CacheStats stats() {
+        return drugs.stats().plus(catalog.stats());
+    }
+
+    /**
+     * Returns the current number of cached entries.
+     *
+     * @return the estimated entry count
+     */
+    public long size() {
+        return drugs.estimatedSize() + catalog.estimatedSize();
+    }
+}
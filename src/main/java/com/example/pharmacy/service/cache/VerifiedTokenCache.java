@@ -0,0 +1,121 @@
+package com.example.pharmacy.service.cache;
+
+import com.example.pharmacy.service.JwtService;
+import com.example.pharmacy.service.valueObjects.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Bounded cache of verified JWTs in front of {@link JwtService}.
+ * Entries are keyed by the SHA-256 digest of the token, so raw tokens are never kept in memory,
+ * and each entry is evicted when its token expires. On a hit, authentication costs one hash and one lookup.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * Rough heap cost of one entry: digest key, claims object with its strings and the cache node.
+     * Used only for the memory estimate in the statistics.
+     */
+    private static final long ESTIMATED_ENTRY_BYTES = 512;
+
+    private final JwtService jwtService;
+    private final Cache<String, VerifiedToken> cache;
+
+    /**
+     * Creates the cache with the configured size bound.
+     *
+     * @param jwtService service used to verify tokens on a miss
+     * @param maxSize    maximum number of cached tokens; configurable via `security.token.cache.max-size`
+     */
+    public VerifiedTokenCache(
+            JwtService jwtService,
+            @Value("${security.token.cache.max-size:10000}") long maxSize
+    ) {
+        this.jwtService = jwtService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long millisLeft = token.getExpiration().getTime() - System.currentTimeMillis();
+                        return Math.max(millisLeft, 0) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the claims of a token, verifying it with {@link JwtService#verify(String)} on a miss.
+     * Tokens that fail verification are not cached.
+     *
+     * @param token the JWT token
+     * @return the verified token claims
+     * @throws io.jsonwebtoken.JwtException if the token is not valid
+     */
+    public VerifiedToken verify(String token) {
+        return cache.get(digest(token), key -> jwtService.verify(token));
+    }
+
+    /**
+     * Returns hit, miss and eviction statistics since startup.
+     *
+     * @return cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the current number of cached tokens.
+     *
+     * @return the estimated entry count
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Returns an estimate of the heap used by the cached entries.
+     *
+     * @return the estimated memory use in bytes
+     */
+    public long estimatedMemoryBytes() {
+        return size() * ESTIMATED_ENTRY_BYTES;
+    }
+
+    /**
+     * Computes the cache key of a token.
+     *
+     * @param token the JWT token
+     * @return the Base64-encoded SHA-256 digest of the token
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
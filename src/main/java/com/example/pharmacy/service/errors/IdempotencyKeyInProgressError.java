@@ -0,0 +1,19 @@
+package com.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request arrives while another request with the same idempotency key
+ * is still being processed. Returns a 409 CONFLICT HTTP status.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInProgressError extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyInProgressError with a default message.
+     */
+    public IdempotencyKeyInProgressError() {
+        super("A request with this Idempotency-Key is still being processed, please retry shortly");
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an idempotency key is sent again with a different request.
+ * Returns a 422 UNPROCESSABLE ENTITY HTTP status.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedError extends RuntimeException {
+
+    /**
+     * Constructs a new IdempotencyKeyReusedError with a default message.
+     */
+    public IdempotencyKeyReusedError() {
+        super("Idempotency-Key was already used for a different request");
+    }
+}
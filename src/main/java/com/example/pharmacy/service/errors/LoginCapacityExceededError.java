@@ -0,0 +1,19 @@
+package com.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the password hashing queue is full and a login cannot be accepted.
+ * Returns a 503 SERVICE UNAVAILABLE HTTP status.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoginCapacityExceededError extends RuntimeException {
+
+    /**
+     * Constructs a new LoginCapacityExceededError with a default message.
+     */
+    public LoginCapacityExceededError() {
+        super("Too many login attempts in progress, please retry shortly");
+    }
+}
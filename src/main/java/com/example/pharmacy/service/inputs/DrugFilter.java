@@ -0,0 +1,87 @@
+package com.example.pharmacy.service.inputs;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+/**
+ * Filter criteria for listing medications. Criteria that are null are not applied.
+ */
+public class DrugFilter {
+
+    /** Exact manufacturer name to match. */
+    private final String manufacturer;
+
+    /** Whether to return only medications with stock left. */
+    private final boolean inStockOnly;
+
+    /** Lowest price to include. */
+    private final BigDecimal minPrice;
+
+    /** Highest price to include. */
+    private final BigDecimal maxPrice;
+
+    /** Only medications expiring before this date are included. */
+    private final Date expiringBefore;
+
+    /**
+     * Constructs a DrugFilter with all criteria.
+     *
+     * @param manufacturer the manufacturer, or null
+     * @param inStockOnly whether to skip medications that are out of stock
+     * @param minPrice the lowest price, or null
+     * @param maxPrice the highest price, or null
+     * @param expiringBefore the exclusive upper bound of the expiration date, or null
+     */
+    public DrugFilter(String manufacturer, boolean inStockOnly, BigDecimal minPrice, BigDecimal maxPrice, Date expiringBefore) {
+        this.manufacturer = manufacturer;
+        this.inStockOnly = inStockOnly;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.expiringBefore = expiringBefore;
+    }
+
+    /**
+     * Gets the manufacturer.
+     *
+     * @return the manufacturer, or null
+     */
+    public String getManufacturer() {
+        return manufacturer;
+    }
+
+    /**
+     * Whether only medications in stock are included.
+     *
+     * @return true to skip medications that are out of stock
+     */
+    public boolean isInStockOnly() {
+        return inStockOnly;
+    }
+
+    /**
+     * Gets the lowest price.
+     *
+     * @return the lowest price, or null
+     */
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * Gets the highest price.
+     *
+     * @return the highest price, or null
+     */
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Gets the expiration date bound.
+     *
+     * @return the exclusive upper bound of the expiration date, or null
+     */
+    public Date getExpiringBefore() {
+        return expiringBefore;
+    }
+}
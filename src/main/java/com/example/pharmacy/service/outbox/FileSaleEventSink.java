@@ -0,0 +1,47 @@
+package com.example.pharmacy.service.outbox;
+
+import com.example.pharmacy.controller.dto.sale.SaleEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink that appends sale events to a local file as newline-delimited JSON.
+ * Enabled by setting `outbox.sink.file.path`.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.file.path")
+public class FileSaleEventSink implements SaleEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates the sink.
+     *
+     * @param path         the file to append to; created if missing
+     * @param objectMapper JSON mapper for the events
+     */
+    public FileSaleEventSink(@Value("${outbox.sink.file.path}") String path, ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<SaleEventDto> events) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (SaleEventDto event : events) {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pharmacy.service.outbox;
+
+import com.example.pharmacy.controller.dto.sale.SaleEventDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink that keeps the most recent sale events in memory, for tests and local inspection.
+ * Enabled by `outbox.sink.memory.enabled`.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.memory.enabled", havingValue = "true")
+public class InMemorySaleEventSink implements SaleEventSink {
+
+    private final int capacity;
+    private final ArrayDeque<SaleEventDto> events = new ArrayDeque<>();
+
+    /**
+     * Creates the sink.
+     *
+     * @param capacity number of events kept; configurable via `outbox.sink.memory.capacity`
+     */
+    public InMemorySaleEventSink(@Value("${outbox.sink.memory.capacity:1000}") int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    @Override
+    public synchronized void publish(List<SaleEventDto> batch) {
+        for (SaleEventDto event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * Returns the kept events, oldest first.
+     *
+     * @return a copy of the kept events
+     */
+    public synchronized List<SaleEventDto> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
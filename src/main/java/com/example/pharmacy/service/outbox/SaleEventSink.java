@@ -0,0 +1,21 @@
+package com.example.pharmacy.service.outbox;
+
+import com.example.pharmacy.controller.dto.sale.SaleEventDto;
+
+import java.util.List;
+
+/**
+ * Destination for sale events relayed from the outbox. Every sink bean receives every batch.
+ * A batch is removed from the outbox only after all sinks accepted it, so a sink that throws
+ * receives the batch again later and must tolerate duplicates.
+ */
+public interface SaleEventSink {
+
+    /**
+     * Delivers a batch of events, oldest first.
+     *
+     * @param events the events
+     * @throws Exception if the batch could not be delivered and should be retried
+     */
+    void publish(List<SaleEventDto> events) throws Exception;
+}
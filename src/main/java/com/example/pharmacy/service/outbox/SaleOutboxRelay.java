@@ -0,0 +1,137 @@
+package com.example.pharmacy.service.outbox;
+
+import com.example.pharmacy.controller.dto.sale.OutboxStatsDto;
+import com.example.pharmacy.controller.dto.sale.SaleEventDto;
+import com.example.pharmacy.infrastructure.entity.SaleOutboxEntity;
+import com.example.pharmacy.repository.SaleOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background relay that drains the sale outbox in batches to every {@link SaleEventSink}.
+ * A batch is deleted from the outbox only after all sinks accepted it; a failing sink leaves the
+ * batch in place to be retried on the next run, so delivery is at least once.
+ * When no sink is configured the relay leaves the outbox untouched.
+ */
+@Component
+public class SaleOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleOutboxRelay.class);
+
+    private final SaleOutboxRepository outboxRepository;
+    private final List<SaleEventSink> sinks;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final LongAdder batchesDispatched = new LongAdder();
+    private final LongAdder eventsDispatched = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile long lastLagMillis;
+    private volatile int lastBatchSize;
+
+    /**
+     * Creates the relay.
+     *
+     * @param outboxRepository repository for pending events
+     * @param sinks            destinations for the events
+     * @param batchSize        events per batch; configurable via `outbox.relay.batch-size`
+     * @param maxBatchesPerRun batches drained per run before yielding; configurable via `outbox.relay.max-batches-per-run`
+     */
+    @Autowired
+    public SaleOutboxRelay(
+            SaleOutboxRepository outboxRepository,
+            List<SaleEventSink> sinks,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxBatchesPerRun = Math.max(maxBatchesPerRun, 1);
+    }
+
+    /**
+     * Dispatches pending events, batch after batch, until the outbox is empty, a sink fails
+     * or the per-run limit is reached. The interval is configurable via `outbox.relay.interval`.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:1000}")
+    public void relay() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            List<SaleOutboxEntity> rows = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            long started = System.nanoTime();
+            List<SaleEventDto> events = rows.stream().map(SaleOutboxRelay::toEvent).toList();
+            try {
+                for (SaleEventSink sink : sinks) {
+                    sink.publish(events);
+                }
+            } catch (Exception e) {
+                failedBatches.increment();
+                logger.warn("Sale event sink rejected a batch of {} events, will retry", events.size(), e);
+                return;
+            }
+            outboxRepository.deleteAllByIdInBatch(rows.stream().map(SaleOutboxEntity::getId).toList());
+
+            long lag = System.currentTimeMillis() - rows.get(0).getCreatedAt().getTime();
+            lastLagMillis = lag;
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+            lastBatchSize = rows.size();
+            batchesDispatched.increment();
+            eventsDispatched.add(rows.size());
+            batchNanos.add(System.nanoTime() - started);
+
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the relay lag, batch sizes and dispatch counters.
+     *
+     * @return the relay statistics
+     */
+    public OutboxStatsDto getStats() {
+        long batches = batchesDispatched.sum();
+        return new OutboxStatsDto(
+                outboxRepository.count(),
+                lastLagMillis,
+                maxLagMillis.get(),
+                lastBatchSize,
+                batches,
+                eventsDispatched.sum(),
+                failedBatches.sum(),
+                batches == 0 ? 0 : batchNanos.sum() / 1_000_000.0 / batches
+        );
+    }
+
+    private static SaleEventDto toEvent(SaleOutboxEntity row) {
+        return new SaleEventDto(
+                row.getId(),
+                row.getSaleId(),
+                row.getCustomerId(),
+                row.getMedicationId(),
+                row.getQuantity(),
+                row.getTotalPrice(),
+                row.getSaleDate()
+        );
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.pharmacy.service.report;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Count-Min sketch over integer items: a fixed grid of counters, one row per hash function.
+ * An estimate is the smallest counter the item maps to, so it never undercounts and overcounts
+ * by at most {@code e / width} of the total with probability {@code 1 - e^-depth}.
+ * Sketches built with the same dimensions and seed hash alike and can be subtracted from each other.
+ */
+final class CountMinSketch {
+
+    /** Mersenne prime 2^31 - 1, the modulus of the hash family. */
+    private static final long PRIME = Integer.MAX_VALUE;
+
+    private final int width;
+    private final int depth;
+    private final long[] multipliers;
+    private final long[] offsets;
+    private final int[] counters;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param width number of counters per row
+     * @param depth number of rows
+     * @param seed  seed of the hash functions
+     */
+    CountMinSketch(int width, int depth, long seed) {
+        this.width = width;
+        this.depth = depth;
+        this.multipliers = new long[depth];
+        this.offsets = new long[depth];
+        this.counters = new int[width * depth];
+
+        Random random = new Random(seed);
+        for (int row = 0; row < depth; row++) {
+            multipliers[row] = 1 + random.nextInt(Integer.MAX_VALUE - 1);
+            offsets[row] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Adds a count to an item; a negative count removes earlier additions.
+     *
+     * @param item  the item
+     * @param count the count to add
+     */
+    void add(int item, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters[index(row, item)] += count;
+        }
+    }
+
+    /**
+     * Estimates the count of an item.
+     *
+     * @param item the item
+     * @return the estimated count, never below the true count
+     */
+    int estimate(int item) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[index(row, item)]);
+        }
+        return min;
+    }
+
+    /**
+     * Subtracts every counter of another sketch with the same dimensions and seed.
+     *
+     * @param other the sketch to subtract
+     */
+    void subtract(CountMinSketch other) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+    }
+
+    /**
+     * Resets every counter to zero.
+     */
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    private int index(int row, int item) {
+        long hash = (multipliers[row] * (item & 0xffffffffL) + offsets[row]) % PRIME;
+        return row * width + (int) (hash % width);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.pharmacy.service.report;
+
+import java.util.*;
+
+/**
+ * Approximate top items over a sliding time window with a fixed memory footprint.
+ * The window is split into buckets, each with its own {@link CountMinSketch}; a running total sketch
+ * is the sum of the live buckets, and a bucket leaving the window is subtracted from it and reused.
+ * A bounded min-heap keeps the items with the highest estimates, so the top list never needs a scan
+ * over all items. The window slides in steps of one bucket. Not thread-safe.
+ */
+final class SlidingHeavyHitters {
+
+    /**
+     * An item and its estimated count in the window.
+     *
+     * @param item  the item
+     * @param count the estimated count
+     */
+    record HeavyHitter(int item, long count) {
+    }
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private static final Comparator<Candidate> BY_ESTIMATE =
+            Comparator.comparingInt((Candidate candidate) -> candidate.estimate)
+                    .thenComparing(candidate -> candidate.item, Comparator.reverseOrder());
+
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final CountMinSketch total;
+    private final int capacity;
+    private final Map<Integer, Candidate> candidates;
+    private final PriorityQueue<Candidate> heap;
+
+    /** Index of the newest bucket, counted in bucket lengths since the epoch. */
+    private long currentBucket = UNSET;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param bucketMillis length of a bucket in milliseconds
+     * @param bucketCount  number of buckets in the window
+     * @param capacity     number of candidate items kept in the heap
+     * @param width        counters per sketch row
+     * @param depth        rows per sketch
+     * @param seed         seed of the sketch hash functions
+     */
+    SlidingHeavyHitters(long bucketMillis, int bucketCount, int capacity, int width, int depth, long seed) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(width, depth, seed);
+        }
+        this.total = new CountMinSketch(width, depth, seed);
+        this.capacity = capacity;
+        this.candidates = new HashMap<>(capacity * 2);
+        this.heap = new PriorityQueue<>(capacity, BY_ESTIMATE);
+    }
+
+    /**
+     * Adds a count to an item at the given time. Counts older than the window are ignored.
+     *
+     * @param item       the item
+     * @param count      the count to add; negative to take back an earlier addition
+     * @param timeMillis the time of the event
+     */
+    void add(int item, int count, long timeMillis) {
+        long bucket = Math.floorDiv(timeMillis, bucketMillis);
+        advance(bucket);
+        if (bucket <= currentBucket - buckets.length) {
+            return;
+        }
+        buckets[(int) Math.floorMod(bucket, (long) buckets.length)].add(item, count);
+        total.add(item, count);
+        offer(item, total.estimate(item));
+    }
+
+    /**
+     * Returns the items with the highest estimated counts in the window ending at the given time.
+     *
+     * @param limit      maximum number of items
+     * @param timeMillis the end of the window
+     * @return items ordered by estimated count, highest first
+     */
+    List<HeavyHitter> top(int limit, long timeMillis) {
+        advance(Math.floorDiv(timeMillis, bucketMillis));
+        return heap.stream()
+                .sorted(BY_ESTIMATE.reversed())
+                .limit(limit)
+                .map(candidate -> new HeavyHitter(candidate.item, candidate.estimate))
+                .toList();
+    }
+
+    /**
+     * Empties the window.
+     */
+    void clear() {
+        for (CountMinSketch bucket : buckets) {
+            bucket.clear();
+        }
+        total.clear();
+        candidates.clear();
+        heap.clear();
+        currentBucket = UNSET;
+    }
+
+    /**
+     * Moves the window forward so that the given bucket is the newest one,
+     * dropping the buckets that fall out and refreshing the candidate estimates.
+     */
+    private void advance(long bucket) {
+        if (currentBucket == UNSET) {
+            currentBucket = bucket;
+            return;
+        }
+        if (bucket <= currentBucket) {
+            return;
+        }
+
+        long steps = Math.min(bucket - currentBucket, buckets.length);
+        for (long step = 1; step <= steps; step++) {
+            CountMinSketch expired = buckets[(int) Math.floorMod(currentBucket + step, (long) buckets.length)];
+            total.subtract(expired);
+            expired.clear();
+        }
+        currentBucket = bucket;
+
+        List<Candidate> kept = new ArrayList<>(heap.size());
+        for (Candidate candidate : heap) {
+            candidate.estimate = total.estimate(candidate.item);
+            if (candidate.estimate > 0) {
+                kept.add(candidate);
+            } else {
+                candidates.remove(candidate.item);
+            }
+        }
+        heap.clear();
+        heap.addAll(kept);
+    }
+
+    /**
+     * Updates the estimate of an item in the heap, or admits it if it beats the weakest candidate.
+     */
+    private void offer(int item, int estimate) {
+        Candidate candidate = candidates.get(item);
+        if (candidate != null) {
+            heap.remove(candidate);
+            if (estimate <= 0) {
+                candidates.remove(item);
+                return;
+            }
+            candidate.estimate = estimate;
+            heap.add(candidate);
+            return;
+        }
+        if (estimate <= 0) {
+            return;
+        }
+        if (heap.size() >= capacity) {
+            if (estimate <= heap.peek().estimate) {
+                return;
+            }
+            candidates.remove(heap.poll().item);
+        }
+        candidate = new Candidate(item, estimate);
+        candidates.put(item, candidate);
+        heap.add(candidate);
+    }
+
+    /**
+     * An item in the heap with its estimate at the time it was last updated.
+     */
+    private static final class Candidate {
+        private final int item;
+        private int estimate;
+
+        private Candidate(int item, int estimate) {
+            this.item = item;
+            this.estimate = estimate;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.pharmacy.service.report;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the best-selling medications over the last hour, day and week as sales happen.
+ * Each window is a {@link SlidingHeavyHitters}, so memory is fixed by the sketch dimensions and
+ * does not grow with the catalog; the counts are estimates that may be slightly too high, never too low.
+ */
+@Component
+public class TopSellerTracker {
+
+    /**
+     * Time windows the tracker reports on, each sliding in steps of one bucket.
+     */
+    public enum Window {
+        HOUR(Duration.ofMinutes(5), 12),
+        DAY(Duration.ofHours(1), 24),
+        WEEK(Duration.ofHours(6), 28);
+
+        private final Duration bucket;
+        private final int buckets;
+
+        Window(Duration bucket, int buckets) {
+            this.bucket = bucket;
+            this.buckets = buckets;
+        }
+
+        /**
+         * Gets the length of the whole window.
+         * @return the window length
+         */
+        public Duration length() {
+            return bucket.multipliedBy(buckets);
+        }
+    }
+
+    /**
+     * A medication and its estimated units sold in a window.
+     *
+     * @param medicationId the ID of the medication
+     * @param units        the estimated units sold
+     */
+    public record TopSeller(int medicationId, long units) {
+    }
+
+    /** Seed shared by all sketches, so buckets and totals hash alike. */
+    private static final long SKETCH_SEED = 0x5EEDL;
+
+    /** Candidates kept per window for every reported item, to absorb estimate errors near the cut. */
+    private static final int CANDIDATES_PER_ITEM = 4;
+
+    /** Number of medications each window reports at most. */
+    private final int topK;
+
+    private final Map<Window, SlidingHeavyHitters> windows = new EnumMap<>(Window.class);
+
+    /**
+     * Creates an empty tracker.
+     *
+     * @param topK  number of medications reported per window
+     * @param width counters per sketch row
+     * @param depth rows per sketch
+     */
+    public TopSellerTracker(
+            @Value("${top-sellers.top-k:20}") int topK,
+            @Value("${top-sellers.sketch.width:2048}") int width,
+            @Value("${top-sellers.sketch.depth:4}") int depth
+    ) {
+        this.topK = Math.max(topK, 1);
+        for (Window window : Window.values()) {
+            windows.put(window, new SlidingHeavyHitters(
+                    window.bucket.toMillis(), window.buckets, this.topK * CANDIDATES_PER_ITEM, width, depth, SKETCH_SEED));
+        }
+    }
+
+    /**
+     * Records a sale. Inside a transaction the sale is only counted after commit,
+     * so a rolled back sale does not show up.
+     *
+     * @param medicationId the ID of the sold medication
+     * @param quantity     the number of units sold
+     * @param timeMillis   the time of the sale
+     */
+    public void recordSale(int medicationId, int quantity, long timeMillis) {
+        afterCommit(() -> add(medicationId, quantity, timeMillis));
+    }
+
+    /**
+     * Takes back a deleted sale, if it is still inside a window. Applied after commit inside a transaction.
+     *
+     * @param medicationId the ID of the sold medication
+     * @param quantity     the number of units sold
+     * @param timeMillis   the time of the sale
+     */
+    public void retractSale(int medicationId, int quantity, long timeMillis) {
+        afterCommit(() -> add(medicationId, -quantity, timeMillis));
+    }
+
+    /**
+     * Counts a sale immediately. Used when replaying sales from the database, oldest first.
+     *
+     * @param medicationId the ID of the sold medication
+     * @param quantity     the number of units sold
+     * @param timeMillis   the time of the sale
+     */
+    public synchronized void add(int medicationId, int quantity, long timeMillis) {
+        windows.values().forEach(window -> window.add(medicationId, quantity, timeMillis));
+    }
+
+    /**
+     * Forgets all sales, before a replay from the database.
+     */
+    public synchronized void clear() {
+        windows.values().forEach(SlidingHeavyHitters::clear);
+    }
+
+    /**
+     * Returns the best-selling medications of a window ending now.
+     *
+     * @param window the time window
+     * @param limit  maximum number of medications, at most the configured top-k
+     * @return medication IDs with estimated units sold, highest first
+     */
+    public synchronized List<TopSeller> top(Window window, int limit) {
+        return windows.get(window).top(Math.min(limit, topK), System.currentTimeMillis()).stream()
+                .map(hitter -> new TopSeller(hitter.item(), hitter.count()))
+                .toList();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.pharmacy.service.search;
+
+import com.example.pharmacy.controller.dto.drug.DrugSearchResultDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory inverted index over medication names and manufacturers.
+ * Every token is indexed by its prefixes and by its character trigrams, so a query matches
+ * whole words, word beginnings and word fragments. Hits are ranked by where and how well each
+ * query token matched; every query token has to match for a medication to be returned.
+ * Reads share a lock and run concurrently; updates are incremental and take the write lock.
+ */
+@Component
+public class DrugSearchIndex {
+
+    /** Longest indexed prefix; longer query tokens are looked up by this prefix and then verified. */
+    private static final int MAX_PREFIX_LENGTH = 16;
+
+    /** Length of the character n-grams used for fragment matching. */
+    private static final int NGRAM_LENGTH = 3;
+
+    /** Share of a query token's n-grams a medication must contain to count as a fragment match. */
+    private static final double MIN_NGRAM_OVERLAP = 0.6;
+
+    private static final double NAME_EXACT_SCORE = 10;
+    private static final double NAME_PREFIX_SCORE = 6;
+    private static final double MANUFACTURER_EXACT_SCORE = 4;
+    private static final double MANUFACTURER_PREFIX_SCORE = 2;
+    private static final double NGRAM_SCORE = 1;
+
+    private static final String NAME_PREFIX_TERM = "n:";
+    private static final String MANUFACTURER_PREFIX_TERM = "m:";
+    private static final String NGRAM_TERM = "g:";
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces the whole index with the given medications.
+     *
+     * @param medications all medications in the catalog
+     */
+    public void rebuild(Collection<MedicationsEntity> medications) {
+        List<MedicationsEntity> sorted = new ArrayList<>(medications);
+        // Ascending IDs turn every posting insert into an append
+        sorted.sort(Comparator.comparingInt(MedicationsEntity::getId));
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            sorted.forEach(this::addUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a medication to the index, replacing its previous version if present.
+     * Inside a transaction the index is only updated after commit.
+     *
+     * @param medication the created or updated medication
+     */
+    public void put(MedicationsEntity medication) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(medication.getId());
+                addUnlocked(medication);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a medication from the index. Inside a transaction the index is only updated after commit.
+     *
+     * @param id the ID of the deleted medication
+     */
+    public void remove(int id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of indexed medications.
+     *
+     * @return the document count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query free text; every token must match a medication's name or manufacturer
+     * @param limit maximum number of hits to return
+     * @return hits ordered by descending score, then by name
+     */
+    public List<DrugSearchResultDto> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> candidates = null;
+            for (String token : new LinkedHashSet<>(queryTokens)) {
+                Map<Integer, Double> tokenScores = scoreToken(token);
+                if (candidates == null) {
+                    candidates = tokenScores;
+                } else {
+                    candidates.keySet().retainAll(tokenScores.keySet());
+                    candidates.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return topHits(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every medication matching a single query token.
+     *
+     * @param token the normalized query token
+     * @return score per matching medication ID
+     */
+    private Map<Integer, Double> scoreToken(String token) {
+        Map<Integer, Double> scores = new HashMap<>();
+        String prefix = token.length() > MAX_PREFIX_LENGTH ? token.substring(0, MAX_PREFIX_LENGTH) : token;
+
+        forEachPosting(NAME_PREFIX_TERM + prefix, id -> {
+            Document document = documents.get(id);
+            if (document.nameTokens().contains(token)) {
+                scores.merge(id, NAME_EXACT_SCORE, Double::sum);
+            } else if (startsAny(document.nameTokens(), token)) {
+                scores.merge(id, NAME_PREFIX_SCORE, Double::sum);
+            }
+        });
+
+        forEachPosting(MANUFACTURER_PREFIX_TERM + prefix, id -> {
+            Document document = documents.get(id);
+            if (document.manufacturerTokens().contains(token)) {
+                scores.merge(id, MANUFACTURER_EXACT_SCORE, Double::sum);
+            } else if (startsAny(document.manufacturerTokens(), token)) {
+                scores.merge(id, MANUFACTURER_PREFIX_SCORE, Double::sum);
+            }
+        });
+
+        Set<String> grams = ngrams(token);
+        if (!grams.isEmpty()) {
+            Map<Integer, Integer> overlap = new HashMap<>();
+            for (String gram : grams) {
+                forEachPosting(NGRAM_TERM + gram, id -> overlap.merge(id, 1, Integer::sum));
+            }
+            int required = (int) Math.ceil(grams.size() * MIN_NGRAM_OVERLAP);
+            overlap.forEach((id, count) -> {
+                if (count >= required) {
+                    scores.merge(id, NGRAM_SCORE * count / grams.size(), Double::sum);
+                }
+            });
+        }
+        return scores;
+    }
+
+    /**
+     * Picks the best hits without sorting all candidates.
+     *
+     * @param candidates score per matching medication ID
+     * @param limit      maximum number of hits
+     * @return the best hits, best first
+     */
+    private List<DrugSearchResultDto> topHits(Map<Integer, Double> candidates, int limit) {
+        Comparator<Map.Entry<Integer, Double>> ranking = Map.Entry.<Integer, Double>comparingByValue()
+                .thenComparing(entry -> documents.get(entry.getKey()).name(), Comparator.reverseOrder());
+
+        PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<Integer, Double> candidate : candidates.entrySet()) {
+            best.add(candidate);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<DrugSearchResultDto> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            var entry = best.poll();
+            Document document = documents.get(entry.getKey());
+            hits.add(new DrugSearchResultDto(
+                    document.id(),
+                    document.name(),
+                    document.manufacturer(),
+                    document.price(),
+                    entry.getValue()
+            ));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    /**
+     * Indexes a medication. Caller must hold the write lock.
+     *
+     * @param medication the medication to index
+     */
+    private void addUnlocked(MedicationsEntity medication) {
+        Set<String> nameTokens = new HashSet<>(tokenize(medication.getName()));
+        Set<String> manufacturerTokens = new HashSet<>(tokenize(medication.getManufacturer()));
+
+        Set<String> terms = new HashSet<>();
+        for (String token : nameTokens) {
+            addPrefixes(terms, NAME_PREFIX_TERM, token);
+            ngrams(token).forEach(gram -> terms.add(NGRAM_TERM + gram));
+        }
+        for (String token : manufacturerTokens) {
+            addPrefixes(terms, MANUFACTURER_PREFIX_TERM, token);
+            ngrams(token).forEach(gram -> terms.add(NGRAM_TERM + gram));
+        }
+
+        int id = medication.getId();
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> new Postings()).add(id);
+        }
+        documents.put(id, new Document(
+                id,
+                medication.getName(),
+                medication.getManufacturer(),
+                medication.getPrice(),
+                nameTokens,
+                manufacturerTokens,
+                terms
+        ));
+    }
+
+    /**
+     * Removes a medication from all postings. Caller must hold the write lock.
+     *
+     * @param id the ID of the medication
+     */
+    private void removeUnlocked(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(id) && list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Runs an action for every medication ID posted under a term.
+     *
+     * @param term   the index term
+     * @param action the action to run
+     */
+    private void forEachPosting(String term, IntConsumer action) {
+        Postings list = postings.get(term);
+        if (list != null) {
+            list.forEach(action);
+        }
+    }
+
+    /**
+     * Adds all indexed prefixes of a token.
+     *
+     * @param terms  the set to add to
+     * @param field  the field prefix of the term
+     * @param token  the token
+     */
+    private static void addPrefixes(Set<String> terms, String field, String token) {
+        int max = Math.min(token.length(), MAX_PREFIX_LENGTH);
+        for (int length = 1; length <= max; length++) {
+            terms.add(field + token.substring(0, length));
+        }
+    }
+
+    /**
+     * Checks whether any token starts with the given prefix.
+     *
+     * @param tokens the tokens of a field
+     * @param prefix the prefix
+     * @return true if a token starts with the prefix
+     */
+    private static boolean startsAny(Set<String> tokens, String prefix) {
+        for (String token : tokens) {
+            if (token.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a token into its character n-grams.
+     *
+     * @param token the token
+     * @return the n-grams, empty if the token is shorter than the n-gram length
+     */
+    private static Set<String> ngrams(String token) {
+        if (token.length() < NGRAM_LENGTH) {
+            return Set.of();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + NGRAM_LENGTH <= token.length(); i++) {
+            grams.add(token.substring(i, i + NGRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Lower-cases text, strips accents and splits it into letter and digit runs.
+     *
+     * @param text the text, may be null
+     * @return the tokens in order
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{Nd}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Runs an update after the current transaction commits, or immediately outside a transaction,
+     * so readers never see a change that was rolled back.
+     *
+     * @param action the update to apply
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Indexed view of a medication.
+     */
+    private record Document(
+            int id,
+            String name,
+            String manufacturer,
+            BigDecimal price,
+            Set<String> nameTokens,
+            Set<String> manufacturerTokens,
+            Set<String> terms
+    ) {
+    }
+
+    /**
+     * Sorted, growable list of medication IDs for one term.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void forEach(IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(ids[i]);
+            }
+        }
+    }
+}
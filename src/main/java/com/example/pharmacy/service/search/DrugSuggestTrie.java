@@ -0,0 +1,483 @@
+package com.example.pharmacy.service.search;
+
+import com.example.pharmacy.controller.dto.drug.DrugSuggestionDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Prefix trie over medication names for type-ahead suggestions, ranked by units sold.
+ * Every node caches the IDs of the best-selling medications in its subtree, so a lookup only
+ * walks the typed prefix and returns that node's list. Children are kept in sorted parallel
+ * arrays rather than maps to keep the nodes small.
+ * Sales raise a medication's weight and re-rank it along its path in place; a full rebuild
+ * replaces the weights with fresh totals from the database.
+ */
+@Component
+public class DrugSuggestTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_IDS = new int[0];
+
+    /** Number of medications cached per node, and the most a lookup can return. */
+    private final int topK;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+    private Map<Integer, String> keys = new HashMap<>();
+    private Map<Integer, String> names = new HashMap<>();
+    private Map<Integer, Long> weights = new HashMap<>();
+
+    /** Medications added, renamed or removed while a rebuild loads its snapshot; null outside a rebuild. */
+    private Set<Integer> changedDuringRebuild;
+    /** Units sold per medication while a rebuild loads its snapshot; null outside a rebuild. */
+    private Map<Integer, Long> soldDuringRebuild;
+
+    /**
+     * Creates an empty trie.
+     *
+     * @param topK number of suggestions cached per node
+     */
+    public DrugSuggestTrie(@Value("${suggest.top-k:10}") int topK) {
+        this.topK = Math.max(topK, 1);
+    }
+
+    /**
+     * Replaces the whole trie. The snapshot is loaded and the new trie built without holding the lock.
+     * Changes committed meanwhile are recorded and replayed onto the new trie before it is swapped in,
+     * so they are not lost. A sale committed just as the snapshot is read may be counted twice;
+     * the next rebuild corrects that.
+     *
+     * @param medications loads all medications in the catalog
+     * @param unitsSold   loads units sold per medication ID within the popularity window
+     */
+    public synchronized void rebuild(Supplier<? extends Collection<MedicationsEntity>> medications,
+                                     Supplier<Map<Integer, Long>> unitsSold) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+            soldDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        DrugSuggestTrie fresh = new DrugSuggestTrie(topK);
+        try {
+            fresh.weights.putAll(unitsSold.get());
+            medications.get().forEach(medication -> fresh.addUnlocked(medication.getId(), medication.getName()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+                soldDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int id : changedDuringRebuild) {
+                fresh.removeUnlocked(id);
+                String name = names.get(id);
+                if (name != null) {
+                    fresh.addUnlocked(id, name);
+                }
+            }
+            soldDuringRebuild.forEach((id, quantity) -> fresh.addWeightUnlocked(id, quantity));
+            changedDuringRebuild = null;
+            soldDuringRebuild = null;
+
+            root = fresh.root;
+            keys = fresh.keys;
+            names = fresh.names;
+            weights = fresh.weights;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a medication, or updates its name if it is already present.
+     * Inside a transaction the trie is only updated after commit.
+     *
+     * @param medication the created or updated medication
+     */
+    public void put(MedicationsEntity medication) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(medication.getId());
+                addUnlocked(medication.getId(), medication.getName());
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(medication.getId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a medication. Inside a transaction the trie is only updated after commit.
+     *
+     * @param id the ID of the deleted medication
+     */
+    public void remove(int id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(id);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Adds sold units to a medication's weight. Inside a transaction the weight is only
+     * raised after commit, so a rolled back sale does not affect the ranking.
+     *
+     * @param medicationId the ID of the sold medication
+     * @param quantity     the number of units sold
+     */
+    public void recordSale(Integer medicationId, int quantity) {
+        if (medicationId == null || quantity <= 0) {
+            return;
+        }
+        afterCommit(() -> addWeight(medicationId, quantity));
+    }
+
+    /**
+     * Returns the best-selling medications whose name starts with the prefix.
+     *
+     * @param prefix the typed prefix; case and accents are ignored
+     * @param limit  maximum number of suggestions, at most the configured top-k
+     * @return suggestions ordered by units sold, then by name
+     */
+    public List<DrugSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            int count = Math.min(limit, node.top.length);
+            List<DrugSuggestionDto> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = node.top[i];
+                suggestions.add(new DrugSuggestionDto(id, names.get(id), weight(id)));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of medications in the trie.
+     *
+     * @return the medication count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Raises a medication's weight and moves it up in the cached lists along its path.
+     * Weights only grow here, so offering the medication to each node keeps every list exact.
+     *
+     * @param medicationId the ID of the sold medication
+     * @param quantity     the number of units sold
+     */
+    private void addWeight(int medicationId, int quantity) {
+        lock.writeLock().lock();
+        try {
+            addWeightUnlocked(medicationId, quantity);
+            if (soldDuringRebuild != null) {
+                soldDuringRebuild.merge(medicationId, (long) quantity, Long::sum);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Raises a medication's weight and re-ranks it along its path. Caller must hold the write lock
+     * or own an unpublished trie.
+     *
+     * @param medicationId the ID of the sold medication
+     * @param quantity     the number of units sold
+     */
+    private void addWeightUnlocked(int medicationId, long quantity) {
+        weights.merge(medicationId, quantity, Long::sum);
+        String key = keys.get(medicationId);
+        if (key == null) {
+            return;
+        }
+        Node node = root;
+        offer(node, medicationId);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i));
+            offer(node, medicationId);
+        }
+    }
+
+    /**
+     * Inserts a medication along the path of its name. Caller must hold the write lock
+     * or own an unpublished trie.
+     *
+     * @param id   the medication ID
+     * @param name the medication name
+     */
+    private void addUnlocked(int id, String name) {
+        String key = normalize(name);
+        keys.put(id, key);
+        names.put(id, name);
+
+        Node node = root;
+        offer(node, id);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            offer(node, id);
+        }
+        node.terminals = append(node.terminals, id);
+    }
+
+    /**
+     * Removes a medication and recomputes the cached lists along its path bottom-up,
+     * pruning nodes that became empty. Caller must hold the write lock.
+     *
+     * @param id the ID of the medication
+     */
+    private void removeUnlocked(int id) {
+        String key = keys.remove(id);
+        if (key == null) {
+            return;
+        }
+        names.remove(id);
+
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+
+        Node leaf = path[key.length()];
+        leaf.terminals = without(leaf.terminals, id);
+        for (int depth = key.length(); depth >= 0; depth--) {
+            Node node = path[depth];
+            if (depth > 0 && node.terminals.length == 0 && node.labels.length == 0) {
+                path[depth - 1].removeChild(key.charAt(depth - 1));
+            } else {
+                recompute(node);
+            }
+        }
+    }
+
+    /**
+     * Places a medication in a node's cached list if it ranks high enough,
+     * re-ranking it if it is already there.
+     *
+     * @param node the node
+     * @param id   the medication ID
+     */
+    private void offer(Node node, int id) {
+        int[] base = without(node.top, id);
+        if (base.length == topK && !ranksBefore(id, base[topK - 1])) {
+            node.top = base;
+            return;
+        }
+
+        int position = 0;
+        while (position < base.length && !ranksBefore(id, base[position])) {
+            position++;
+        }
+        int[] top = new int[Math.min(base.length + 1, topK)];
+        System.arraycopy(base, 0, top, 0, position);
+        top[position] = id;
+        System.arraycopy(base, position, top, position + 1, top.length - position - 1);
+        node.top = top;
+    }
+
+    /**
+     * Rebuilds a node's cached list from its own medications and its children's lists.
+     *
+     * @param node the node
+     */
+    private void recompute(Node node) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int id : node.terminals) {
+            candidates.add(id);
+        }
+        for (Node child : node.children) {
+            for (int id : child.top) {
+                candidates.add(id);
+            }
+        }
+        candidates.sort((a, b) -> a.equals(b) ? 0 : ranksBefore(a, b) ? -1 : 1);
+
+        int[] top = new int[Math.min(candidates.size(), topK)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = candidates.get(i);
+        }
+        node.top = top;
+    }
+
+    /**
+     * Ranking order: more units sold first, then by name, then by ID.
+     *
+     * @param a a medication ID
+     * @param b another medication ID
+     * @return true if {@code a} ranks before {@code b}
+     */
+    private boolean ranksBefore(int a, int b) {
+        int byWeight = Long.compare(weight(b), weight(a));
+        if (byWeight != 0) {
+            return byWeight < 0;
+        }
+        int byName = keys.get(a).compareTo(keys.get(b));
+        if (byName != 0) {
+            return byName < 0;
+        }
+        return a < b;
+    }
+
+    private long weight(int id) {
+        return weights.getOrDefault(id, 0L);
+    }
+
+    private static int[] append(int[] ids, int id) {
+        int[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static int[] without(int[] ids, int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                int[] result = new int[ids.length - 1];
+                System.arraycopy(ids, 0, result, 0, i);
+                System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+                return result;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Lower-cases a name, strips accents and collapses whitespace.
+     *
+     * @param text the text, may be null
+     * @return the trie key
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .strip();
+    }
+
+    /**
+     * Runs an update after the current transaction commits, or immediately outside a transaction,
+     * so readers never see a change that was rolled back.
+     *
+     * @param action the update to apply
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Trie node with sorted child labels and the cached best medications of its subtree.
+     */
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        /** Medications whose whole name ends at this node. */
+        private int[] terminals = NO_IDS;
+        /** Best-ranked medications in this subtree, best first. */
+        private int[] top = NO_IDS;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            Node child = new Node();
+
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newLabels[index] = label;
+            newChildren[index] = child;
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.pharmacy.service.sync;
+
+import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.MedicationTombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.TreeSet;
+
+/**
+ * Hands out monotonically increasing change versions for writes to the drug catalog.
+ * Every write to a medication row, including stock changes and deletions, stamps a new version.
+ * <p>
+ * Versions are handed out before the writing transaction commits, and transactions may commit out of
+ * order. {@link #safeVersion()} therefore only reports versions below the oldest one still in flight,
+ * so a client that syncs up to it never skips a change that commits later.
+ */
+@Component
+public class CatalogChangeTracker {
+
+    private final DrugRepository drugRepository;
+    private final MedicationTombstoneRepository tombstoneRepository;
+
+    private long lastVersion;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+
+    /**
+     * Constructs the tracker.
+     *
+     * @param drugRepository      repository used to find the highest stored version at startup
+     * @param tombstoneRepository repository used to find the highest stored deletion version at startup
+     */
+    @Autowired
+    public CatalogChangeTracker(DrugRepository drugRepository, MedicationTombstoneRepository tombstoneRepository) {
+        this.drugRepository = drugRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    /**
+     * Continues numbering after the highest version already stored.
+     */
+    @PostConstruct
+    void init() {
+        lastVersion = Math.max(drugRepository.findMaxChangeVersion(), tombstoneRepository.findMaxChangeVersion());
+    }
+
+    /**
+     * Hands out the next change version. Inside a transaction the version counts as in flight
+     * until the transaction completes.
+     *
+     * @return the new change version
+     */
+    public synchronized long nextVersion() {
+        long version = ++lastVersion;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.add(version);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(version);
+                }
+            });
+        }
+        return version;
+    }
+
+    /**
+     * Returns the highest version up to which all changes are committed or rolled back.
+     *
+     * @return the safe version
+     */
+    public synchronized long safeVersion() {
+        return inFlight.isEmpty() ? lastVersion : inFlight.first() - 1;
+    }
+
+    private synchronized void complete(long version) {
+        inFlight.remove(version);
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.pharmacy.service.sync;
+
+import com.example.pharmacy.controller.dto.drug.DrugStockChangeDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes stock and price changes to Server-Sent Events subscribers.
+ * <p>
+ * Connections are async servlet requests, so an idle subscriber holds no thread. Each subscriber has a
+ * bounded buffer keyed by drug ID: a newer change replaces a pending one for the same drug, so a slow
+ * client receives the latest value per drug instead of a growing backlog. If more distinct drugs are
+ * pending than the buffer holds, the buffer is dropped and a {@code resync} event tells the client to
+ * reload through the delta sync endpoint. A small pool drains subscribers that have pending changes,
+ * and never more than one task per subscriber at a time.
+ * <p>
+ * Writes block while a client does not read. A subscriber whose write takes longer than the send timeout
+ * is dropped, and the pool gets an extra thread until the blocked write returns, so a few stalled
+ * clients cannot hold up delivery to everyone else. Once the write returns the stream is closed, and the
+ * client reconnects and resyncs.
+ */
+@Component
+public class DrugChangeBroadcaster {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final int dispatchThreads;
+    private final long sendTimeoutNanos;
+
+    /** Number of dispatch threads blocked in a write to a dropped subscriber. */
+    private int stalledThreads;
+
+    /**
+     * Creates the broadcaster.
+     *
+     * @param bufferSize      maximum number of distinct drugs pending per subscriber; configurable via `drugs.stream.buffer-size`
+     * @param timeoutMillis   lifetime of a connection before the client has to reconnect; configurable via `drugs.stream.timeout`
+     * @param dispatchThreads number of threads writing to subscribers; configurable via `drugs.stream.dispatch-threads`
+     * @param sendTimeoutMillis longest a single write may block before the subscriber is dropped;
+     *                          configurable via `drugs.stream.send-timeout`
+     */
+    public DrugChangeBroadcaster(
+            @Value("${drugs.stream.buffer-size:256}") int bufferSize,
+            @Value("${drugs.stream.timeout:1800000}") long timeoutMillis,
+            @Value("${drugs.stream.dispatch-threads:4}") int dispatchThreads,
+            @Value("${drugs.stream.send-timeout:10000}") long sendTimeoutMillis
+    ) {
+        this.bufferSize = Math.max(bufferSize, 1);
+        this.timeoutMillis = timeoutMillis;
+        this.dispatchThreads = Math.max(dispatchThreads, 1);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(sendTimeoutMillis, 1));
+        // The queue is unbounded, so the pool runs exactly the core size of threads; it is resized at runtime
+        this.dispatcher = new ThreadPoolExecutor(
+                this.dispatchThreads,
+                Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("drug-stream-")
+        );
+    }
+
+    /**
+     * Opens a new subscription.
+     *
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    /**
+     * Registers an emitter as a new subscription.
+     *
+     * @param emitter the emitter to write the changes to
+     * @return the same emitter
+     */
+    SseEmitter subscribe(SseEmitter emitter) {
+        var subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Publishes a change to all subscribers. Inside a transaction the change is only published
+     * after commit, so subscribers never see a change that was rolled back.
+     *
+     * @param change the new stock and price of a drug
+     */
+    public void publish(DrugStockChangeDto change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(change);
+                }
+            });
+        } else {
+            broadcast(change);
+        }
+    }
+
+    /**
+     * Returns the number of open subscriptions.
+     *
+     * @return the subscriber count
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Sends a comment line to every subscriber so dead connections are detected and proxies
+     * do not close idle ones. The interval is configurable via `drugs.stream.heartbeat-interval`.
+     */
+    @Scheduled(fixedDelayString = "${drugs.stream.heartbeat-interval:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.requestHeartbeat();
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Drops subscribers whose current write has been blocked for longer than the send timeout, and
+     * replaces the dispatch thread it holds. The interval is configurable via `drugs.stream.stall-check-interval`.
+     */
+    @Scheduled(fixedDelayString = "${drugs.stream.stall-check-interval:1000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.markStalled(now, sendTimeoutNanos)) {
+                subscribers.remove(subscriber);
+                resizeDispatcher(1);
+            }
+        }
+    }
+
+    /**
+     * Completes all subscriptions and stops the dispatcher.
+     */
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void broadcast(DrugStockChangeDto change) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(change);
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Adds or removes dispatch threads standing in for threads blocked on stalled subscribers.
+     *
+     * @param delta the change in the number of stalled threads
+     */
+    private synchronized void resizeDispatcher(int delta) {
+        stalledThreads += delta;
+        dispatcher.setCorePoolSize(dispatchThreads + stalledThreads);
+    }
+
+    /**
+     * Writes everything pending for a subscriber. Changes that arrive while a write blocks
+     * are coalesced in the buffer and picked up by the next round.
+     *
+     * @param subscriber the subscriber to drain
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.stalled) {
+                Batch batch = subscriber.take();
+                if (batch.isEmpty()) {
+                    subscriber.scheduled.set(false);
+                    // A change may have been offered after take() but before the flag was cleared
+                    if (!subscriber.hasPending() || !subscriber.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                if (batch.resync()) {
+                    send(subscriber, SseEmitter.event().name("resync").data(""));
+                }
+                for (DrugStockChangeDto change : batch.changes()) {
+                    send(subscriber, SseEmitter.event()
+                            .name("stock")
+                            .id(Long.toString(change.getVersion()))
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                if (batch.heartbeat()) {
+                    send(subscriber, SseEmitter.event().comment("ping"));
+                }
+            }
+            // Dropped while a write was blocked: close the stream, the client reconnects and resyncs
+            subscriber.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+            subscribers.remove(subscriber);
+            subscriber.scheduled.set(false);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            if (subscriber.stalled) {
+                resizeDispatcher(-1);
+            }
+        }
+    }
+
+    /**
+     * Writes one event, recording when the write started so a blocked write can be detected.
+     *
+     * @param subscriber the subscriber to write to
+     * @param event      the event to write
+     * @throws IOException if the client went away
+     */
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.startSend();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.endSend();
+        }
+    }
+
+    /**
+     * Changes taken from a subscriber's buffer in one round.
+     */
+    private record Batch(boolean resync, boolean heartbeat, List<DrugStockChangeDto> changes) {
+        boolean isEmpty() {
+            return !resync && !heartbeat && changes.isEmpty();
+        }
+    }
+
+    /**
+     * An open subscription with its coalescing buffer.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /** Latest pending change per drug ID, in the order the drugs first changed. */
+        private LinkedHashMap<Integer, DrugStockChangeDto> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeat;
+
+        /** Start of the write in progress, or -1 if no write is in progress. */
+        private long sendStartedAt = -1;
+        /** Set once the subscriber was dropped because a write blocked for too long. */
+        private volatile boolean stalled;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void startSend() {
+            sendStartedAt = System.nanoTime();
+        }
+
+        synchronized void endSend() {
+            sendStartedAt = -1;
+        }
+
+        /**
+         * Marks the subscriber as stalled if its current write started more than the timeout ago.
+         * Runs under the same lock as {@link #endSend()}, so a subscriber is only marked while the
+         * draining thread is still inside the write and will see the flag once it returns.
+         *
+         * @return true if the subscriber was marked by this call
+         */
+        synchronized boolean markStalled(long now, long timeoutNanos) {
+            if (stalled || sendStartedAt == -1 || now - sendStartedAt <= timeoutNanos) {
+                return false;
+            }
+            stalled = true;
+            return true;
+        }
+
+        synchronized void offer(DrugStockChangeDto change) {
+            pending.put(change.getId(), change);
+            if (pending.size() > bufferSize) {
+                pending.clear();
+                resync = true;
+            }
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeat = true;
+        }
+
+        synchronized boolean hasPending() {
+            return resync || heartbeat || !pending.isEmpty();
+        }
+
+        synchronized Batch take() {
+            var batch = new Batch(resync, heartbeat && pending.isEmpty() && !resync, new ArrayList<>(pending.values()));
+            pending = new LinkedHashMap<>();
+            resync = false;
+            heartbeat = false;
+            return batch;
+        }
+    }
+}
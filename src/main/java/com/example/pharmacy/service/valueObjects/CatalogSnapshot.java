@@ -0,0 +1,88 @@
+package com.example.pharmacy.service.valueObjects;
+
+/**
+ * Value object holding the drug catalog pre-encoded as JSON, plain and gzip-compressed,
+ * for one version of the catalog.
+ */
+public class CatalogSnapshot {
+    /** Catalog version the snapshot was built from. */
+    private final long version;
+
+    /** The catalog as a JSON array. */
+    private final byte[] json;
+
+    /** The JSON array compressed with gzip. */
+    private final byte[] gzip;
+
+    /** Strong entity tag derived from the JSON content, including quotes. */
+    private final String etag;
+
+    /** Time the snapshot was built, in epoch milliseconds. */
+    private final long builtAt;
+
+    /**
+     * Creates a catalog snapshot.
+     *
+     * @param version the catalog version
+     * @param json    the catalog as JSON
+     * @param gzip    the gzip-compressed JSON
+     * @param etag    the quoted entity tag of the JSON
+     * @param builtAt the build time in epoch milliseconds
+     */
+    public CatalogSnapshot(long version, byte[] json, byte[] gzip, String etag, long builtAt) {
+        this.version = version;
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+        this.builtAt = builtAt;
+    }
+
+    /**
+     * Gets the catalog version.
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the catalog as JSON. The array is shared and must not be modified.
+     * @return the JSON bytes
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * Gets the gzip-compressed catalog. The array is shared and must not be modified.
+     * @return the gzip bytes
+     */
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * Gets the entity tag of the JSON representation.
+     * @return the quoted entity tag
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Gets the entity tag of the gzip representation; it differs from the JSON one
+     * because the bytes differ.
+     * @return the quoted entity tag
+     */
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Gets the build time.
+     * @return the build time in epoch milliseconds
+     */
+    public long getBuiltAt() {
+        return builtAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.pharmacy.service.valueObjects;
+
+import java.util.Date;
+
+/**
+ * Value object holding the claims of a JWT whose signature and expiry have already been checked.
+ */
+public class VerifiedToken {
+    /** ID of the user the token was issued to, or null for tokens issued without the {@code id} claim. */
+    private final Long userId;
+
+    /** Username stored as the token subject. */
+    private final String username;
+
+    /** Role of the user the token was issued to. */
+    private final String role;
+
+    /** Expiration date of the token. */
+    private final Date expiration;
+
+    /**
+     * Creates a verified token from its parsed claims.
+     *
+     * @param userId     the user ID, or null if the token has none
+     * @param username   the token subject
+     * @param role       the user role
+     * @param expiration the expiration date
+     */
+    public VerifiedToken(Long userId, String username, String role, Date expiration) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.expiration = expiration;
+    }
+
+    /**
+     * Gets the user ID stored in the token.
+     * @return the user ID, or null if the token has none
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the username stored in the token.
+     * @return the username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the user role stored in the token.
+     * @return the role
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Gets the expiration date of the token.
+     * @return the expiration date
+     */
+    public Date getExpiration() {
+        return expiration;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.pharmacy.repository;
+
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import com.example.pharmacy.infrastructure.entity.SalesEntity;
+import com.example.pharmacy.infrastructure.entity.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class SaleRepositoryTest {
+
+    private static final int SALES = 20;
+
+    /** Sales of the customer whose purchase history is paged, each of a different medication. */
+    private static final int HISTORY_SALES = 8;
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < SALES; i++) {
+            var user = new UserEntity();
+            user.setUsername("names-customer-" + i);
+            user.setEmail("names-customer-" + i + "@example.com");
+            user.setPassword("password");
+            user.setRole("CUSTOMER");
+            user.setBalance(BigDecimal.ZERO);
+            entityManager.persist(user);
+
+            var drug = new MedicationsEntity();
+            drug.setName("Names drug " + i);
+            drug.setManufacturer("Test");
+            drug.setPrice(BigDecimal.ONE);
+            drug.setStockQuantity(1);
+            entityManager.persist(drug);
+
+            var sale = new SalesEntity();
+            sale.setCustomerId(user.getId().intValue());
+            sale.setMedicationId(drug.getId());
+            sale.setQuantity(1);
+            sale.setTotalPrice(BigDecimal.ONE);
+            sale.setSaleDate(Timestamp.from(Instant.now()));
+            entityManager.persist(sale);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllWithNamesResolvesNamesInOneStatement() {
+        List<GetSaleDto> sales = saleRepository.findAllWithNames();
+
+        assertThat(sales).hasSize(SALES);
+        assertThat(sales).allSatisfy(sale -> {
+            assertThat(sale.getCustomerName()).startsWith("names-customer-");
+            assertThat(sale.getMedicationName()).startsWith("Names drug ");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findOneWithNamesResolvesNamesInOneStatement() {
+        int id = saleRepository.findAllWithNames().get(0).getId();
+        statistics.clear();
+
+        assertThat(saleRepository.findOneWithNames(id)).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void customerHistoryPagesResolveNamesInOneStatement() {
+        int historyCustomerId = persistHistory();
+        var limit = PageRequest.of(0, PAGE_SIZE);
+
+        List<GetSaleDto> first = saleRepository.findFirstPageByCustomerId(historyCustomerId, limit);
+
+        assertThat(first).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        GetSaleDto last = first.get(PAGE_SIZE - 1);
+        statistics.clear();
+        List<GetSaleDto> next = saleRepository.findPageByCustomerIdAfter(
+                historyCustomerId, last.getSaleDate(), last.getId(), limit);
+
+        assertThat(next).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(Stream.concat(first.stream(), next.stream())).allSatisfy(sale -> {
+            assertThat(sale.getCustomerName()).isEqualTo("history-customer");
+            assertThat(sale.getMedicationName()).startsWith("History drug ");
+        });
+        assertThat(Stream.concat(first.stream(), next.stream()).map(GetSaleDto::getMedicationName))
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void streamsSalesThroughTheStreamingFragment() {
+        try (Stream<GetSaleDto> sales = saleRepository.streamAllWithNames()) {
+            List<Integer> ids = sales.map(GetSaleDto::getId).toList();
+            assertThat(ids).hasSize(SALES).isSorted();
+        }
+        try (Stream<SaleRepository.SaleFacts> facts = saleRepository.streamFacts()) {
+            assertThat(facts.toList()).hasSize(SALES).allSatisfy(fact -> {
+                assertThat(fact.getQuantity()).isEqualTo(1);
+                assertThat(fact.getTotalPrice()).isEqualByComparingTo(BigDecimal.ONE);
+                assertThat(fact.getSaleDate()).isNotNull();
+            });
+        }
+        try (Stream<SaleRepository.SaleVolume> volumes = saleRepository.streamVolumesSince(new Timestamp(0))) {
+            assertThat(volumes.toList()).hasSize(SALES);
+        }
+    }
+
+    /**
+     * Persists a customer with {@link #HISTORY_SALES} sales of distinct medications, one second apart.
+     *
+     * @return the customer ID
+     */
+    private int persistHistory() {
+        var customer = new UserEntity();
+        customer.setUsername("history-customer");
+        customer.setEmail("history-customer@example.com");
+        customer.setPassword("password");
+        customer.setRole("CUSTOMER");
+        customer.setBalance(BigDecimal.ZERO);
+        entityManager.persist(customer);
+        int customerId = customer.getId().intValue();
+
+        Instant now = Instant.now();
+        for (int i = 0; i < HISTORY_SALES; i++) {
+            var drug = new MedicationsEntity();
+            drug.setName("History drug " + i);
+            drug.setManufacturer("Test");
+            drug.setPrice(BigDecimal.ONE);
+            drug.setStockQuantity(1);
+            entityManager.persist(drug);
+
+            var sale = new SalesEntity();
+            sale.setCustomerId(customerId);
+            sale.setMedicationId(drug.getId());
+            sale.setQuantity(1);
+            sale.setTotalPrice(BigDecimal.ONE);
+            sale.setSaleDate(Timestamp.from(now.minusSeconds(i)));
+            entityManager.persist(sale);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        return customerId;
+    }
+}
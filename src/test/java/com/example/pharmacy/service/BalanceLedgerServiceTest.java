@@ -0,0 +1,130 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.infrastructure.entity.BalanceLedgerEntity;
+import com.example.pharmacy.infrastructure.entity.UserEntity;
+import com.example.pharmacy.repository.BalanceLedgerRepository;
+import com.example.pharmacy.repository.BalanceSnapshotRepository;
+import com.example.pharmacy.repository.IUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "balance.snapshot.compaction-delay=0s",
+        "balance.snapshot.compaction-interval=3600000"
+})
+@ActiveProfiles("test")
+class BalanceLedgerServiceTest {
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private BalanceLedgerRepository ledgerRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentFirstReadsOpenTheAccountOnce() throws Exception {
+        var user = newUser("ledger-first-read", new BigDecimal("25.00"));
+        int readers = 16;
+
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BigDecimal>> results = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return balanceLedgerService.getBalance(user.getId());
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        for (Future<BigDecimal> result : results) {
+            assertThat(result.get()).isEqualByComparingTo("25.00");
+        }
+        assertThat(snapshotRepository.findById(user.getId())).isPresent();
+    }
+
+    @Test
+    void compactionWaitsForAnOlderEntryThatCommitsLate() throws Exception {
+        var user = newUser("ledger-late-commit", BigDecimal.ZERO);
+        balanceLedgerService.openAccount(user);
+
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        // The deposit gets the lower ID but stays uncommitted until the compaction has started
+        Future<?> lateDeposit = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            balanceLedgerService.recordDeposit(user.getId(), new BigDecimal("10.00"));
+            inserted.countDown();
+            await(commit);
+        }));
+        assertThat(inserted.await(30, TimeUnit.SECONDS)).isTrue();
+
+        var entry = new BalanceLedgerEntity();
+        entry.setUserId(user.getId());
+        entry.setAmount(new BigDecimal("5.00"));
+        entry.setType(BalanceLedgerEntity.TYPE_DEPOSIT);
+        entry.setReference("deposit:committed-first");
+        entry.setCreatedAt(Timestamp.from(Instant.now()));
+        ledgerRepository.save(entry);
+
+        Future<?> compaction = pool.submit(balanceLedgerService::compactSnapshots);
+        Thread.sleep(500);
+        commit.countDown();
+        lateDeposit.get(30, TimeUnit.SECONDS);
+        compaction.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        var snapshot = snapshotRepository.findById(user.getId()).orElseThrow();
+        assertThat(snapshot.getLastEntryId()).isEqualTo(entry.getId());
+        assertThat(snapshot.getBalance()).isEqualByComparingTo("15.00");
+        assertThat(balanceLedgerService.getBalance(user.getId())).isEqualByComparingTo("15.00");
+    }
+
+    private UserEntity newUser(String username, BigDecimal balance) {
+        var user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setRole("CUSTOMER");
+        user.setBalance(balance);
+        return userRepository.save(user);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
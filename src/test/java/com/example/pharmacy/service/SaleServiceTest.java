@@ -0,0 +1,71 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.controller.dto.sale.GetSaleDto;
+import com.example.pharmacy.controller.dto.sale.SalePageDto;
+import com.example.pharmacy.infrastructure.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class SaleServiceTest {
+
+    private static final int CUSTOMER_ID = 900_001;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void pagesThroughSalesOfTheSameMillisecond() {
+        // Same millisecond, different microseconds, like the lines of one cart checkout
+        insertSale(1001, "2026-01-01 10:00:00.123100");
+        insertSale(1002, "2026-01-01 10:00:00.123200");
+        insertSale(1003, "2026-01-01 10:00:00.123300");
+        insertSale(1004, "2026-01-01 10:00:00.123400");
+        insertSale(1005, "2026-01-01 09:00:00");
+
+        var user = new UserEntity();
+        user.setId((long) CUSTOMER_ID);
+        user.setUsername("customer");
+        user.setRole("CUSTOMER");
+        String token = jwtService.createToken(user);
+
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SalePageDto page = saleService.getSalesForCurrentCustomer(token, cursor, 1);
+            page.getItems().stream().map(GetSaleDto::getId).forEach(ids::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertThat(ids).containsExactly(1004, 1003, 1002, 1001, 1005);
+    }
+
+    private void insertSale(int id, String saleDate) {
+        jdbcTemplate.update(
+                "insert into drugstore_db.sales (id, customer_id, medication_id, quantity, total_price, sale_date) values (?, ?, ?, ?, ?, ?)",
+                id, CUSTOMER_ID, 1, 1, new BigDecimal("1.00"), Timestamp.valueOf(saleDate));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.controller.dto.report.SalesAnalyticsDto;
+import com.example.pharmacy.controller.dto.report.SalesAnalyticsRowDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.SaleArchiveRepository;
+import com.example.pharmacy.repository.SaleRepository;
+import com.example.pharmacy.service.analytics.SalesColumnStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalesAnalyticsServiceTest {
+
+    private final SalesColumnStore columnStore = new SalesColumnStore();
+    private SalesAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        DrugRepository drugRepository = mock(DrugRepository.class);
+        when(drugRepository.findAll()).thenReturn(List.of(
+                medication(1, "Aspirin", "Bayer"),
+                medication(2, "Viagra", "Pfizer"),
+                medication(3, "Rennie", "bayer")
+        ));
+        service = new SalesAnalyticsService(
+                mock(SaleRepository.class),
+                mock(SaleArchiveRepository.class),
+                drugRepository,
+                columnStore,
+                mock(PlatformTransactionManager.class)
+        );
+
+        sale(1, 7, "2026-01-10T09:15", "4.00", 2);
+        sale(2, 8, "2026-01-20T14:05", "3.50", 1);
+        sale(3, 7, "2026-02-01T10:45", "10.00", 5);
+        sale(1, 9, "2026-02-02T23:59", "2.00", 1);
+        sale(99, 9, "2026-02-02T09:00", "1.00", 1);
+        // A deleted sale of medication 2, stored as its negation
+        sale(2, 8, "2026-02-03T12:00", "3.50", 1);
+        sale(2, 8, "2026-02-03T12:00", "-3.50", -1);
+    }
+
+    @Test
+    void groupsByMedicationOrderedByRevenue() {
+        SalesAnalyticsDto result = service.query("medication", null, null, null, null, null, 100);
+
+        assertThat(result.getGroupBy()).containsExactly("medication");
+        assertThat(result.getTotalGroups()).isEqualTo(4);
+        assertThat(result.getRowsScanned()).isEqualTo(7);
+        assertThat(result.getRows()).extracting(SalesAnalyticsRowDto::getKeys).containsExactly(
+                List.of("Rennie"), List.of("Aspirin"), List.of("Viagra"), List.of("Unknown Medication"));
+        assertRow(result.getRows().get(1), 3, "6.00", 2);
+        assertRow(result.getRows().get(2), 1, "3.50", 1);
+    }
+
+    @Test
+    void groupsByManufacturerAndMonthOrderedByRevenue() {
+        SalesAnalyticsDto result = service.query("manufacturer,month", null, null, null, null, null, 100);
+
+        assertThat(result.getRows()).extracting(SalesAnalyticsRowDto::getKeys).containsExactly(
+                List.of("bayer", "2026-02"),
+                List.of("Bayer", "2026-01"),
+                List.of("Pfizer", "2026-01"),
+                List.of("Bayer", "2026-02"),
+                List.of("Unknown Manufacturer", "2026-02"),
+                List.of("Pfizer", "2026-02"));
+        // The deleted sale cancels out but its group stays
+        assertRow(result.getRows().get(5), 0, "0.00", 0);
+
+        // "bayer" is its own manufacturer label, but filtering by manufacturer ignores case
+        SalesAnalyticsDto bayer = service.query("month", null, null, null, null, "BAYER", 100);
+        assertThat(bayer.getRows()).extracting(SalesAnalyticsRowDto::getKeys)
+                .containsExactly(List.of("2026-01"), List.of("2026-02"));
+        assertRow(bayer.getRows().get(1), 6, "12.00", 2);
+    }
+
+    @Test
+    void groupsByTimeInTimeOrder() {
+        SalesAnalyticsDto result = service.query("month", null, null, null, null, null, 100);
+
+        assertThat(result.getRows()).extracting(SalesAnalyticsRowDto::getKeys)
+                .containsExactly(List.of("2026-01"), List.of("2026-02"));
+        assertRow(result.getRows().get(0), 3, "7.50", 2);
+        assertRow(result.getRows().get(1), 7, "13.00", 3);
+    }
+
+    @Test
+    void filtersByInclusiveDaysAndCustomer() {
+        SalesAnalyticsDto result = service.query(
+                "day", LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 2), null, 9, null, 100);
+
+        assertThat(result.getRows()).hasSize(1);
+        assertThat(result.getRows().get(0).getKeys()).containsExactly("2026-02-02");
+        assertRow(result.getRows().get(0), 2, "3.00", 2);
+    }
+
+    @Test
+    void limitsTheNumberOfRowsButNotTheGroupCount() {
+        SalesAnalyticsDto result = service.query("customer", null, null, null, null, null, 1);
+
+        assertThat(result.getTotalGroups()).isEqualTo(3);
+        assertThat(result.getRows()).hasSize(1);
+        assertThat(result.getRows().get(0).getKeys()).containsExactly("7");
+    }
+
+    @Test
+    void rejectsUnsupportedGroupings() {
+        assertThatThrownBy(() -> service.query("bogus", null, null, null, null, null, 10))
+                .hasMessage("Unsupported groupBy: bogus");
+        assertThatThrownBy(() -> service.query("year,month,day", null, null, null, null, null, 10))
+                .hasMessage("At most two groupBy dimensions are supported");
+        assertThatThrownBy(() -> service.query(" ", null, null, null, null, null, 10))
+                .hasMessage("groupBy is required");
+    }
+
+    private void sale(int medicationId, int customerId, String time, String amount, int quantity) {
+        long millis = LocalDateTime.parse(time).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        columnStore.append(medicationId, customerId, millis, SalesColumnStore.toCents(new BigDecimal(amount)), quantity);
+    }
+
+    private static void assertRow(SalesAnalyticsRowDto row, long units, String revenue, long sales) {
+        assertThat(row.getUnits()).isEqualTo(units);
+        assertThat(row.getRevenue()).isEqualByComparingTo(revenue);
+        assertThat(row.getSales()).isEqualTo(sales);
+    }
+
+    private static MedicationsEntity medication(int id, String name, String manufacturer) {
+        var medication = new MedicationsEntity();
+        medication.setId(id);
+        medication.setName(name);
+        medication.setManufacturer(manufacturer);
+        return medication;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.infrastructure.entity.SalesDailyRollupEntity;
+import com.example.pharmacy.infrastructure.entity.SalesDailyRollupId;
+import com.example.pharmacy.infrastructure.entity.SalesEntity;
+import com.example.pharmacy.repository.SalesDailyRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SalesReportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2020, 3, 14);
+    private static final int CUSTOMER_ID = 800_001;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentPurchasesByOneCustomerCountTheCustomerOnce() throws Exception {
+        int medicationId = 700_001;
+        int buyers = 16;
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                transactionTemplate.executeWithoutResult(status ->
+                        salesReportService.record(List.of(sale(medicationId, CUSTOMER_ID, 10))));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        var row = rollup(medicationId);
+        assertThat(row.getUnits()).isEqualTo(buyers);
+        assertThat(row.getCustomers()).isEqualTo(1);
+    }
+
+    @Test
+    void customerStopsCountingWithTheirLastRetractedPurchase() {
+        int medicationId = 700_002;
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        var first = sale(medicationId, CUSTOMER_ID, 10);
+        var second = sale(medicationId, CUSTOMER_ID, 11);
+        var other = sale(medicationId, CUSTOMER_ID + 1, 12);
+
+        transactionTemplate.executeWithoutResult(status -> salesReportService.record(List.of(first, second)));
+        transactionTemplate.executeWithoutResult(status -> salesReportService.record(List.of(other)));
+        assertThat(rollup(medicationId).getCustomers()).isEqualTo(2);
+
+        transactionTemplate.executeWithoutResult(status -> salesReportService.retract(first));
+        assertThat(rollup(medicationId).getCustomers()).isEqualTo(2);
+
+        transactionTemplate.executeWithoutResult(status -> salesReportService.retract(second));
+        assertThat(rollup(medicationId).getCustomers()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> salesReportService.retract(other));
+        assertThat(rollupRepository.findById(new SalesDailyRollupId(Date.valueOf(DAY), medicationId))).isEmpty();
+    }
+
+    private SalesDailyRollupEntity rollup(int medicationId) {
+        return rollupRepository.findById(new SalesDailyRollupId(Date.valueOf(DAY), medicationId)).orElseThrow();
+    }
+
+    private static SalesEntity sale(int medicationId, int customerId, int hour) {
+        var sale = new SalesEntity();
+        sale.setMedicationId(medicationId);
+        sale.setCustomerId(customerId);
+        sale.setQuantity(1);
+        sale.setTotalPrice(BigDecimal.ONE);
+        sale.setSaleDate(Timestamp.valueOf(DAY.atTime(hour, 0)));
+        return sale;
+    }
+}
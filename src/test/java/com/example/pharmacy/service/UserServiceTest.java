@@ -0,0 +1,180 @@
+package com.example.pharmacy.service;
+
+import com.example.pharmacy.controller.dto.CheckoutItemDto;
+import com.example.pharmacy.controller.dto.CheckoutRequestDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import com.example.pharmacy.infrastructure.entity.UserEntity;
+import com.example.pharmacy.repository.DrugRepository;
+import com.example.pharmacy.repository.IUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTest {
+
+    private static final int BUYERS = 64;
+    private static final int STOCK = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentPurchasesNeverOversellTheLastUnits() throws Exception {
+        var drug = new MedicationsEntity();
+        drug.setName("Oversell test drug");
+        drug.setManufacturer("Test");
+        drug.setPrice(BigDecimal.ONE);
+        drug.setStockQuantity(STOCK);
+        int medicationId = drugRepository.save(drug).getId();
+
+        List<String> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            String username = "oversell-buyer-" + i;
+            var user = new UserEntity();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            user.setPassword("password");
+            user.setRole("CUSTOMER");
+            user.setBalance(BigDecimal.ZERO);
+            userRepository.save(user);
+            balanceLedgerService.openAccount(user);
+            balanceLedgerService.recordDeposit(user.getId(), new BigDecimal("100.00"));
+            buyers.add(username);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (String username : buyers) {
+            results.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        username, null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+                start.await();
+                try {
+                    userService.buyMedication(() -> username, (long) medicationId, 1);
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        start.countDown();
+
+        int bought = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(2, TimeUnit.MINUTES)) {
+                bought++;
+            }
+        }
+        pool.shutdown();
+
+        int stock = drugRepository.findStockQuantity(medicationId);
+        Integer soldUnits = jdbcTemplate.queryForObject(
+                "select coalesce(sum(quantity), 0) from drugstore_db.sales where medication_id = ?", Integer.class, medicationId);
+        Integer sales = jdbcTemplate.queryForObject(
+                "select count(*) from drugstore_db.sales where medication_id = ?", Integer.class, medicationId);
+
+        assertThat(stock).isGreaterThanOrEqualTo(0);
+        assertThat(bought).isEqualTo(STOCK);
+        assertThat(sales).isEqualTo(bought);
+        assertThat(soldUnits).isEqualTo(STOCK - stock);
+    }
+
+    @Test
+    void concurrentBuysAndCheckoutsOfOneCustomerDoNotDeadlock() throws Exception {
+        int threads = 16;
+        int purchasesPerThread = 10;
+        int stock = threads * purchasesPerThread * 2;
+
+        var drug = new MedicationsEntity();
+        drug.setName("Lock order test drug");
+        drug.setManufacturer("Test");
+        drug.setPrice(BigDecimal.ONE);
+        drug.setStockQuantity(stock);
+        int medicationId = drugRepository.save(drug).getId();
+
+        String username = "lock-order-buyer";
+        var user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setRole("CUSTOMER");
+        user.setBalance(BigDecimal.ZERO);
+        userRepository.save(user);
+        balanceLedgerService.openAccount(user);
+        balanceLedgerService.recordDeposit(user.getId(), BigDecimal.valueOf(stock));
+
+        var item = new CheckoutItemDto();
+        item.setMedicationId((long) medicationId);
+        item.setQuantity(1);
+        var cart = new CheckoutRequestDto();
+        cart.setItems(List.of(item));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            boolean checkout = i % 2 == 1;
+            results.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        username, null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+                start.await();
+                try {
+                    for (int n = 0; n < purchasesPerThread; n++) {
+                        if (checkout) {
+                            userService.checkout(() -> username, cart);
+                        } else {
+                            userService.buyMedication(() -> username, (long) medicationId, 1);
+                        }
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+
+        // A deadlock aborts one of the purchases, which fails its future
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(drugRepository.findStockQuantity(medicationId)).isEqualTo(stock - threads * purchasesPerThread);
+        assertThat(balanceLedgerService.getBalance(user.getId()))
+                .isEqualByComparingTo(BigDecimal.valueOf(stock - threads * purchasesPerThread));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.pharmacy.service.analytics;
+
+import com.example.pharmacy.service.analytics.SalesColumnStore.Dimension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalesColumnStoreTest {
+
+    /** More than three chunks, so scans cross chunk boundaries and merge partial tables. */
+    private static final int ROWS = 200_000;
+    private static final int MEDICATIONS = 50;
+    private static final int CUSTOMERS = 300;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+    private static final long START = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final long SPAN = 2L * 365 * 24 * 3600 * 1000;
+
+    private final SalesColumnStore store = new SalesColumnStore();
+    private final List<Row> rows = new ArrayList<>();
+    private final int[] manufacturerOf = new int[MEDICATIONS];
+
+    private record Row(int medicationId, int customerId, long time, long cents, int quantity) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(5);
+        for (int medication = 0; medication < MEDICATIONS; medication++) {
+            manufacturerOf[medication] = medication % 7;
+        }
+        for (int i = 0; i < ROWS; i++) {
+            int customerId = random.nextInt(10) == 0 ? SalesColumnStore.NO_CUSTOMER : random.nextInt(CUSTOMERS);
+            var row = new Row(
+                    random.nextInt(MEDICATIONS), customerId, START + (long) (random.nextDouble() * SPAN),
+                    100 + random.nextInt(10_000), 1 + random.nextInt(4));
+            add(row);
+            // Deleted sales are stored as a negated copy
+            if (random.nextInt(50) == 0) {
+                add(new Row(row.medicationId(), row.customerId(), row.time(), -row.cents(), -row.quantity()));
+            }
+        }
+    }
+
+    @Test
+    void groupsByMedicationLikeANaiveScan() {
+        assertMatchesNaive(query(List.of(Dimension.MEDICATION), Long.MIN_VALUE, Long.MAX_VALUE, null, SalesColumnStore.NO_CUSTOMER));
+    }
+
+    @Test
+    void groupsByManufacturerAndMonthWithinATimeRange() {
+        long from = START + SPAN / 4;
+        long to = START + SPAN / 2;
+        assertMatchesNaive(query(List.of(Dimension.MANUFACTURER, Dimension.MONTH), from, to, null, SalesColumnStore.NO_CUSTOMER));
+    }
+
+    @Test
+    void groupsByCustomerForSelectedMedications() {
+        boolean[] medications = new boolean[MEDICATIONS];
+        medications[3] = true;
+        medications[17] = true;
+        assertMatchesNaive(query(List.of(Dimension.CUSTOMER), Long.MIN_VALUE, Long.MAX_VALUE, medications, SalesColumnStore.NO_CUSTOMER));
+    }
+
+    @Test
+    void groupsByDayOfWeekAndHourForOneCustomer() {
+        assertMatchesNaive(query(List.of(Dimension.DAY_OF_WEEK, Dimension.HOUR), Long.MIN_VALUE, Long.MAX_VALUE, null, 42));
+    }
+
+    @Test
+    void groupsByYearAndDay() {
+        assertMatchesNaive(query(List.of(Dimension.YEAR), Long.MIN_VALUE, Long.MAX_VALUE, null, SalesColumnStore.NO_CUSTOMER));
+        assertMatchesNaive(query(List.of(Dimension.DAY), START, START + SPAN / 10, null, SalesColumnStore.NO_CUSTOMER));
+    }
+
+    @Test
+    void reportsTheNumberOfScannedRows() {
+        var result = store.query(query(List.of(Dimension.YEAR), 0, 1, null, SalesColumnStore.NO_CUSTOMER));
+
+        assertThat(result.groups()).isEmpty();
+        assertThat(result.rowsScanned()).isEqualTo(rows.size());
+        assertThat(store.size()).isEqualTo(rows.size());
+    }
+
+    @Test
+    void clearEmptiesTheStore() {
+        store.clear();
+
+        assertThat(store.size()).isZero();
+        assertThat(store.query(query(List.of(Dimension.MEDICATION), Long.MIN_VALUE, Long.MAX_VALUE, null, SalesColumnStore.NO_CUSTOMER))
+                .groups()).isEmpty();
+    }
+
+    @Test
+    void toCentsRoundsHalfUp() {
+        assertThat(SalesColumnStore.toCents(new BigDecimal("12.345"))).isEqualTo(1235);
+        assertThat(SalesColumnStore.toCents(new BigDecimal("-0.5"))).isEqualTo(-50);
+        assertThat(SalesColumnStore.toCents(null)).isZero();
+    }
+
+    private void add(Row row) {
+        rows.add(row);
+        store.append(row.medicationId(), row.customerId(), row.time(), row.cents(), row.quantity());
+    }
+
+    private SalesColumnStore.Query query(List<Dimension> groupBy, long from, long to, boolean[] medications, int customerId) {
+        return new SalesColumnStore.Query(groupBy, from, to, medications, customerId, manufacturerOf, ZONE);
+    }
+
+    private void assertMatchesNaive(SalesColumnStore.Query query) {
+        Map<Long, long[]> expected = naive(query);
+        Map<Long, SalesColumnStore.Totals> actual = store.query(query).groups();
+
+        assertThat(actual).hasSize(expected.size());
+        expected.forEach((key, totals) -> {
+            assertThat(actual).containsKey(key);
+            SalesColumnStore.Totals group = actual.get(key);
+            assertThat(new long[]{group.getUnits(), group.getCents(), group.getSales()}).as("group %x", key).containsExactly(totals);
+        });
+    }
+
+    /** Filters and groups the rows one by one with java.time, the way the store is meant to. */
+    private Map<Long, long[]> naive(SalesColumnStore.Query query) {
+        Map<Long, long[]> groups = new HashMap<>();
+        for (Row row : rows) {
+            if (row.time() < query.fromMillis() || row.time() >= query.toMillis()) {
+                continue;
+            }
+            if (query.medications() != null && !query.medications()[row.medicationId()]) {
+                continue;
+            }
+            if (query.customerId() != SalesColumnStore.NO_CUSTOMER && row.customerId() != query.customerId()) {
+                continue;
+            }
+            long key = (long) keyOf(query.groupBy().get(0), row) << 32;
+            if (query.groupBy().size() > 1) {
+                key |= keyOf(query.groupBy().get(1), row) & 0xffffffffL;
+            }
+            long[] totals = groups.computeIfAbsent(key, k -> new long[3]);
+            totals[0] += row.quantity();
+            totals[1] += row.cents();
+            totals[2] += row.quantity() < 0 ? -1 : 1;
+        }
+        return groups;
+    }
+
+    private int keyOf(Dimension dimension, Row row) {
+        ZonedDateTime time = Instant.ofEpochMilli(row.time()).atZone(ZONE);
+        return switch (dimension) {
+            case MEDICATION -> row.medicationId();
+            case MANUFACTURER -> manufacturerOf[row.medicationId()];
+            case CUSTOMER -> row.customerId();
+            case YEAR -> time.getYear();
+            case MONTH -> time.getYear() * 12 + time.getMonthValue() - 1;
+            case DAY -> (int) time.toLocalDate().toEpochDay();
+            case DAY_OF_WEEK -> time.getDayOfWeek().getValue();
+            case HOUR -> time.getHour();
+        };
+    }
+}
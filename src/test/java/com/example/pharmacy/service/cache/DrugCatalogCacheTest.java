@@ -0,0 +1,56 @@
+package com.example.pharmacy.service.cache;
+
+import com.example.pharmacy.controller.dto.drug.GetDrugDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrugCatalogCacheTest {
+
+    private final DrugCatalogCache cache = new DrugCatalogCache(2, Duration.ofMinutes(5));
+
+    @Test
+    void readsByIdDoNotEvictTheCatalogList() {
+        AtomicInteger catalogLoads = new AtomicInteger();
+        List<GetDrugDto> all = List.of(drug(1), drug(2));
+
+        cache.getAll(() -> {
+            catalogLoads.incrementAndGet();
+            return all;
+        });
+        for (int id = 1; id <= 1000; id++) {
+            int drugId = id;
+            cache.getOne(drugId, key -> Optional.of(drug(drugId)));
+        }
+        List<GetDrugDto> cached = cache.getAll(() -> {
+            catalogLoads.incrementAndGet();
+            return all;
+        });
+
+        assertThat(cached).hasSize(2);
+        assertThat(catalogLoads).hasValue(1);
+    }
+
+    @Test
+    void invalidateDropsTheCatalogListAndTheDrugs() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getAll(() -> List.of(drug(loads.incrementAndGet())));
+        cache.getOne(1, key -> Optional.of(drug(loads.incrementAndGet())));
+
+        cache.invalidate();
+        cache.getAll(() -> List.of(drug(loads.incrementAndGet())));
+        cache.getOne(1, key -> Optional.of(drug(loads.incrementAndGet())));
+
+        assertThat(loads).hasValue(4);
+    }
+
+    private static GetDrugDto drug(int id) {
+        return new GetDrugDto(id, "Drug " + id, "Test", BigDecimal.ONE, null, true, 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.pharmacy.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimatesNeverFallBelowTrueCounts() {
+        // Narrow enough that many items share counters
+        var sketch = new CountMinSketch(64, 4, 1);
+        Map<Integer, Integer> counts = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            int item = random.nextInt(5_000);
+            int count = 1 + random.nextInt(5);
+            sketch.add(item, count);
+            counts.merge(item, count, Integer::sum);
+        }
+
+        counts.forEach((item, count) -> assertThat(sketch.estimate(item)).isGreaterThanOrEqualTo(count));
+    }
+
+    @Test
+    void estimatesAreExactWhenItemsDoNotCollide() {
+        var sketch = new CountMinSketch(4096, 4, 1);
+        sketch.add(1, 10);
+        sketch.add(2, 3);
+        sketch.add(1, 5);
+
+        assertThat(sketch.estimate(1)).isEqualTo(15);
+        assertThat(sketch.estimate(2)).isEqualTo(3);
+        assertThat(sketch.estimate(3)).isZero();
+    }
+
+    @Test
+    void negativeCountsTakeBackEarlierAdditions() {
+        var sketch = new CountMinSketch(4096, 4, 1);
+        sketch.add(1, 10);
+        sketch.add(1, -4);
+
+        assertThat(sketch.estimate(1)).isEqualTo(6);
+    }
+
+    @Test
+    void subtractRemovesTheCountsOfAnotherSketch() {
+        var total = new CountMinSketch(256, 4, 3);
+        var part = new CountMinSketch(256, 4, 3);
+        total.add(1, 10);
+        total.add(2, 7);
+        part.add(1, 4);
+
+        total.subtract(part);
+
+        assertThat(total.estimate(1)).isEqualTo(6);
+        assertThat(total.estimate(2)).isGreaterThanOrEqualTo(7);
+    }
+
+    @Test
+    void clearResetsEveryCounter() {
+        var sketch = new CountMinSketch(64, 4, 1);
+        sketch.add(1, 10);
+        sketch.clear();
+
+        assertThat(sketch.estimate(1)).isZero();
+    }
+}
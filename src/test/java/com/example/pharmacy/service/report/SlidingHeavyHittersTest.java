@@ -0,0 +1,133 @@
+package com.example.pharmacy.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingHeavyHittersTest {
+
+    private static final long BUCKET_MILLIS = 1_000;
+    private static final int BUCKET_COUNT = 3;
+
+    private static SlidingHeavyHitters window(int capacity) {
+        return new SlidingHeavyHitters(BUCKET_MILLIS, BUCKET_COUNT, capacity, 4096, 4, 1);
+    }
+
+    @Test
+    void topOrdersByCountThenByItem() {
+        var window = window(10);
+        window.add(1, 3, 0);
+        window.add(2, 10, 0);
+        window.add(3, 5, 0);
+        window.add(4, 5, 0);
+
+        assertThat(window.top(10, 0)).containsExactly(
+                new SlidingHeavyHitters.HeavyHitter(2, 10),
+                new SlidingHeavyHitters.HeavyHitter(3, 5),
+                new SlidingHeavyHitters.HeavyHitter(4, 5),
+                new SlidingHeavyHitters.HeavyHitter(1, 3)
+        );
+        assertThat(window.top(2, 0)).extracting(SlidingHeavyHitters.HeavyHitter::item).containsExactly(2, 3);
+    }
+
+    @Test
+    void bucketsExpireAfterBucketCountSteps() {
+        var window = window(10);
+        window.add(1, 4, 0);
+        window.add(2, 1, BUCKET_MILLIS);
+
+        // Bucket 0 is still inside a window ending in bucket 2
+        assertThat(window.top(10, BUCKET_COUNT * BUCKET_MILLIS - 1))
+                .extracting(SlidingHeavyHitters.HeavyHitter::item).containsExactly(1, 2);
+
+        // One more step pushes bucket 0 out
+        assertThat(window.top(10, BUCKET_COUNT * BUCKET_MILLIS))
+                .containsExactly(new SlidingHeavyHitters.HeavyHitter(2, 1));
+
+        // And everything is gone once the window has moved past bucket 1
+        assertThat(window.top(10, (BUCKET_COUNT + 1) * BUCKET_MILLIS)).isEmpty();
+    }
+
+    @Test
+    void countsOlderThanTheWindowAreIgnored() {
+        var window = window(10);
+        window.add(1, 1, 10 * BUCKET_MILLIS);
+        window.add(2, 5, 0);
+
+        assertThat(window.top(10, 10 * BUCKET_MILLIS))
+                .containsExactly(new SlidingHeavyHitters.HeavyHitter(1, 1));
+    }
+
+    @Test
+    void retractionRemovesACandidate() {
+        var window = window(10);
+        window.add(1, 5, 0);
+        window.add(2, 2, 0);
+        window.add(1, -5, 0);
+
+        assertThat(window.top(10, 0)).containsExactly(new SlidingHeavyHitters.HeavyHitter(2, 2));
+    }
+
+    @Test
+    void partialRetractionLowersTheEstimate() {
+        var window = window(10);
+        window.add(1, 5, 0);
+        window.add(2, 4, 0);
+        window.add(1, -3, 0);
+
+        assertThat(window.top(10, 0)).containsExactly(
+                new SlidingHeavyHitters.HeavyHitter(2, 4),
+                new SlidingHeavyHitters.HeavyHitter(1, 2)
+        );
+    }
+
+    @Test
+    void itemOutsideAFullHeapIsAdmittedOnceItOvertakesTheWeakest() {
+        var window = window(2);
+        window.add(1, 5, 0);
+        window.add(2, 4, 0);
+        window.add(3, 3, 0);
+
+        assertThat(window.top(10, 0)).extracting(SlidingHeavyHitters.HeavyHitter::item).containsExactly(1, 2);
+
+        // The sketch kept counting item 3 while it was outside the heap
+        window.add(3, 3, 0);
+
+        assertThat(window.top(10, 0)).containsExactly(
+                new SlidingHeavyHitters.HeavyHitter(3, 6),
+                new SlidingHeavyHitters.HeavyHitter(1, 5)
+        );
+    }
+
+    @Test
+    void topMatchesExactCountsForSkewedTraffic() {
+        var window = window(20);
+        Map<Integer, Long> counts = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 50_000; i++) {
+            // Items 0..9 take about half of the traffic, the rest is spread over 10 000 items
+            int item = random.nextBoolean() ? random.nextInt(10) : 10 + random.nextInt(10_000);
+            window.add(item, 1, 0);
+            counts.merge(item, 1L, Long::sum);
+        }
+
+        var top = window.top(10, 0);
+        assertThat(top).extracting(SlidingHeavyHitters.HeavyHitter::item)
+                .containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        top.forEach(hitter -> assertThat(hitter.count()).isGreaterThanOrEqualTo(counts.get(hitter.item())));
+    }
+
+    @Test
+    void clearEmptiesTheWindow() {
+        var window = window(10);
+        window.add(1, 5, 0);
+        window.clear();
+
+        assertThat(window.top(10, 0)).isEmpty();
+    }
+}
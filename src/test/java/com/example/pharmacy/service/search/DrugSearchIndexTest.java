@@ -0,0 +1,68 @@
+package com.example.pharmacy.service.search;
+
+import com.example.pharmacy.controller.dto.drug.DrugSearchResultDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrugSearchIndexTest {
+
+    private final DrugSearchIndex index = new DrugSearchIndex();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void putOutsideATransactionIsVisibleImmediately() {
+        index.put(drug(1, "Ibuprofen"));
+
+        assertThat(ids(index.search("ibuprofen", 10))).containsExactly(1);
+    }
+
+    @Test
+    void putInsideATransactionIsVisibleOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.put(drug(1, "Ibuprofen"));
+
+        assertThat(index.search("ibuprofen", 10)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ids(index.search("ibuprofen", 10))).containsExactly(1);
+    }
+
+    @Test
+    void removeInsideARolledBackTransactionKeepsTheMedication() {
+        index.put(drug(1, "Ibuprofen"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.remove(1);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(ids(index.search("ibuprofen", 10))).containsExactly(1);
+    }
+
+    private static MedicationsEntity drug(int id, String name) {
+        var drug = new MedicationsEntity();
+        drug.setId(id);
+        drug.setName(name);
+        drug.setManufacturer("Test");
+        drug.setPrice(BigDecimal.ONE);
+        return drug;
+    }
+
+    private static List<Integer> ids(List<DrugSearchResultDto> results) {
+        return results.stream().map(DrugSearchResultDto::getId).toList();
+    }
+}
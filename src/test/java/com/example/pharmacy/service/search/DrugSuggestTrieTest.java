@@ -0,0 +1,96 @@
+package com.example.pharmacy.service.search;
+
+import com.example.pharmacy.controller.dto.drug.DrugSuggestionDto;
+import com.example.pharmacy.infrastructure.entity.MedicationsEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrugSuggestTrieTest {
+
+    private final DrugSuggestTrie trie = new DrugSuggestTrie(10);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void putInsideATransactionIsVisibleOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        trie.put(drug(1, "Aspirin"));
+
+        assertThat(trie.suggest("asp", 10)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ids(trie.suggest("asp", 10))).containsExactly(1);
+    }
+
+    @Test
+    void removeInsideARolledBackTransactionKeepsTheMedication() {
+        trie.put(drug(1, "Aspirin"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        trie.remove(1);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(ids(trie.suggest("asp", 10))).containsExactly(1);
+    }
+
+    @Test
+    void changesCommittedDuringARebuildSurviveTheSwap() {
+        trie.put(drug(1, "Aspirin"));
+        trie.put(drug(2, "Asparaginase"));
+
+        trie.rebuild(() -> {
+            // Committed after the catalog snapshot was read, so the snapshot misses them
+            trie.put(drug(3, "Aspartame"));
+            trie.put(drug(2, "Ibuprofen"));
+            trie.remove(1);
+            trie.recordSale(3, 5);
+            return List.of(drug(1, "Aspirin"), drug(2, "Asparaginase"));
+        }, Map::of);
+
+        assertThat(ids(trie.suggest("asp", 10))).containsExactly(3);
+        assertThat(trie.suggest("asp", 10).get(0).getUnitsSold()).isEqualTo(5);
+        assertThat(ids(trie.suggest("ibu", 10))).containsExactly(2);
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    void salesRecordedDuringARebuildAreAddedToTheFreshTotals() {
+        trie.put(drug(1, "Aspirin"));
+        trie.put(drug(2, "Aspartame"));
+
+        trie.rebuild(() -> List.of(drug(1, "Aspirin"), drug(2, "Aspartame")), () -> {
+            trie.recordSale(1, 4);
+            return Map.of(1, 1L, 2, 3L);
+        });
+
+        assertThat(ids(trie.suggest("asp", 10))).containsExactly(1, 2);
+        assertThat(trie.suggest("asp", 10).get(0).getUnitsSold()).isEqualTo(5);
+    }
+
+    private static MedicationsEntity drug(int id, String name) {
+        var drug = new MedicationsEntity();
+        drug.setId(id);
+        drug.setName(name);
+        drug.setManufacturer("Test");
+        drug.setPrice(BigDecimal.ONE);
+        return drug;
+    }
+
+    private static List<Integer> ids(List<DrugSuggestionDto> results) {
+        return results.stream().map(DrugSuggestionDto::getId).toList();
+    }
+}
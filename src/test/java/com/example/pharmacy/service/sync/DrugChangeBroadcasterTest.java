@@ -0,0 +1,105 @@
+package com.example.pharmacy.service.sync;
+
+import com.example.pharmacy.controller.dto.drug.DrugStockChangeDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrugChangeBroadcasterTest {
+
+    private static final int DISPATCH_THREADS = 2;
+
+    private final DrugChangeBroadcaster broadcaster = new DrugChangeBroadcaster(16, 0, DISPATCH_THREADS, 100);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void stalledSubscribersDoNotHoldUpTheOthers() throws Exception {
+        for (int i = 0; i < DISPATCH_THREADS; i++) {
+            broadcaster.subscribe(new BlockingEmitter(unblock));
+        }
+        var fast = new RecordingEmitter();
+        broadcaster.subscribe(fast);
+
+        // The stalled subscribers take every dispatch thread, so the fast one may not be served
+        broadcaster.publish(change(1));
+        Thread.sleep(200);
+
+        broadcaster.dropStalledSubscribers();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+
+        broadcaster.publish(change(2));
+        assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void subscribersAreNotDroppedBeforeTheSendTimeout() throws Exception {
+        broadcaster.subscribe(new BlockingEmitter(unblock));
+        broadcaster.publish(change(1));
+
+        broadcaster.dropStalledSubscribers();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void idleSubscribersAreNeverDropped() throws Exception {
+        var fast = new RecordingEmitter();
+        broadcaster.subscribe(fast);
+        broadcaster.publish(change(1));
+        assertThat(fast.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+        Thread.sleep(200);
+
+        broadcaster.dropStalledSubscribers();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    private static DrugStockChangeDto change(long version) {
+        return new DrugStockChangeDto(1, 10, BigDecimal.ONE, version);
+    }
+
+    /**
+     * Emitter whose writes block like a client that stopped reading.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch unblock;
+
+        BlockingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Emitter that records every event written to it.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+        }
+    }
+}